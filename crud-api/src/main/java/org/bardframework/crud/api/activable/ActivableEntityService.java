@@ -3,17 +3,28 @@ package org.bardframework.crud.api.activable;
 import org.bardframework.crud.api.base.BaseModel;
 import org.bardframework.crud.api.base.BaseRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ActivableEntityService<M extends BaseModel<I>, R extends ActivableEntityRepository<I, U> & BaseRepository<M, ?, I, U>, I, U> {
 
     default M enable(I id, U user) {
         this.getRepository().setEnable(id, true, user);
+        this.invalidateCached(List.of(id));
         return this.getRepository().get(id, user);
     }
 
     default M disable(I id, U user) {
         this.getRepository().setEnable(id, false, user);
+        this.invalidateCached(List.of(id));
         return this.getRepository().get(id, user);
     }
 
+    /**
+     * implemented by {@link org.bardframework.crud.api.base.ReadService#invalidateCached(Collection)}
+     */
+    default void invalidateCached(Collection<I> ids) {
+    }
+
     R getRepository();
 }
@@ -35,5 +35,20 @@ public interface BaseRepository<M extends BaseModel<I>, C extends BaseCriteria<I
 
     List<M> update(Collection<M> models, U user);
 
+    /**
+     * @return true if single model update and patch return updated row as stored (e.g. read by <code>UPDATE ... RETURNING</code>),
+     * so it doesn't need to be read again; false by default.
+     */
+    default boolean isUpdateReturningRow() {
+        return false;
+    }
+
+    /**
+     * insert models without id or not exist, update others; in a few statements instead of reading each model first.
+     *
+     * @return given models, ids of new models are set
+     */
+    List<M> upsert(Collection<M> models, U user);
+
     M patch(I id, Map<String, Object> fields, U user);
 }
\ No newline at end of file
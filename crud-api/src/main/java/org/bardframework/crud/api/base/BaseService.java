@@ -6,8 +6,10 @@ import org.bardframework.commons.utils.AssertionUtils;
 import org.bardframework.commons.utils.ReflectionUtils;
 import org.bardframework.form.model.filter.IdFilter;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -35,21 +37,25 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
         return this.delete(List.of(id), user);
     }
 
+    /**
+     * whole id collection is given to repository, which reads and deletes large collections in chunks by itself;
+     * delete hooks get a criteria of given ids.
+     */
     @Transactional
     public long delete(Collection<I> ids, U user) {
         AssertionUtils.notEmpty(ids, "Given ids cannot be empty.");
-        if (ids.isEmpty()) {
-            return 0;
-        }
         C criteria = this.getEmptyCriteria();
         criteria.setIdFilter(new IdFilter<I>().setIn(ids));
-        return this.delete(criteria, user);
+        return this.getMetrics().measure(this.getMetricsEntity(), "delete", null, () -> this.deleteInternal(criteria, this.getRepository().get(ids, user), user), Long::longValue);
     }
 
     @Transactional
     public long delete(C criteria, U user) {
         AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
-        List<M> models = this.getRepository().get(criteria, user);
+        return this.getMetrics().measure(this.getMetricsEntity(), "delete", null, () -> this.deleteInternal(criteria, this.getRepository().get(criteria, user), user), Long::longValue);
+    }
+
+    private long deleteInternal(C criteria, List<M> models, U user) {
         if (CollectionUtils.isEmpty(models)) {
             return 0;
         }
@@ -58,9 +64,9 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
             call directDelete(List) instead of delete(List).
             maybe some joined part has been deleted in preDelete (like status change)
          */
-        C deleteCriteria = this.getEmptyCriteria();
-        deleteCriteria.setIdFilter(new IdFilter<I>().setIn(models.stream().map(M::getId).collect(Collectors.toList())));
-        long deletedCount = this.getRepository().delete(deleteCriteria, user);
+        List<I> modelIds = models.stream().map(M::getId).collect(Collectors.toList());
+        long deletedCount = this.getRepository().delete(modelIds, user);
+        this.invalidateCached(modelIds);
 
         this.postDelete(criteria, models, deletedCount, user);
         return deletedCount;
@@ -115,6 +121,10 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
         if (dtos.isEmpty()) {
             return Collections.emptyList();
         }
+        return this.getMetrics().measure(this.getMetricsEntity(), "save", null, () -> this.saveInternal(dtos, user), List::size);
+    }
+
+    private List<M> saveInternal(List<D> dtos, U user) {
         this.preSave(dtos, user);
         List<M> list = new ArrayList<>();
         for (D dto : dtos) {
@@ -122,7 +132,37 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
         }
         list = this.getRepository().save(list, user);
         this.postSave(dtos, list, user);
-        return list.stream().map(model -> this.get(model.getId(), user)).collect(Collectors.toList());
+        this.invalidateResultCache();
+        if (!this.isReadAfterSave()) {
+            return list;
+        }
+        return this.getOrdered(list.stream().map(M::getId).collect(Collectors.toList()), user);
+    }
+
+    /**
+     * if true (default) saved models are read again after save, in a few batched queries; override to return models as saved,
+     * e.g. when repository already fills persisted state of models.
+     */
+    protected boolean isReadAfterSave() {
+        return true;
+    }
+
+    /**
+     * async variant of {@link #save(Object, Object)}, runs in a transaction of {@link #getAsyncTransactionOperations()}, see {@link #async(java.util.function.Supplier)}
+     */
+    public CompletableFuture<M> saveAsync(D dto, U user) {
+        TransactionOperations transactionOperations = this.getAsyncTransactionOperations();
+        if (null == transactionOperations) {
+            throw new IllegalStateException("async transaction operations not provided, can't save asynchronously.");
+        }
+        return this.async(() -> transactionOperations.execute(status -> this.save(dto, user)));
+    }
+
+    /**
+     * transaction of async writes, e.g. {@link org.springframework.transaction.support.TransactionTemplate}; async writes are not allowed if null (default).
+     */
+    protected TransactionOperations getAsyncTransactionOperations() {
+        return null;
     }
 
     /**
@@ -155,6 +195,10 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
     public M patch(I id, Map<String, Object> patches, U user) {
         AssertionUtils.notNull(id, "id cannot be null.");
         AssertionUtils.notEmpty(patches, "patches cannot be empty.");
+        return this.getMetrics().measure(this.getMetricsEntity(), "patch", null, () -> this.patchInternal(id, patches, user), model -> 1);
+    }
+
+    private M patchInternal(I id, Map<String, Object> patches, U user) {
         M entity = this.getRepository().get(id, user);
         if (null == entity) {
             return null;
@@ -162,8 +206,9 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
         M pre = this.clone(entity);
         this.prePatch(pre, patches, user);
         M patched = this.getRepository().patch(id, patches, user);
+        this.invalidateCached(List.of(id));
         this.postPatch(pre, patched, patches, user);
-        return this.get(entity.getId(), user);
+        return this.getAfterUpdate(patched, user);
     }
 
     protected void prePatch(M previousModel, Map<String, Object> patch, U user) {
@@ -176,6 +221,10 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
     public M update(I id, D dto, U user) {
         AssertionUtils.notNull(id, "id cannot be null.");
         AssertionUtils.notNull(dto, "patch cannot be dto.");
+        return this.getMetrics().measure(this.getMetricsEntity(), "update", null, () -> this.updateInternal(id, dto, user), model -> 1);
+    }
+
+    private M updateInternal(I id, D dto, U user) {
         M entity = this.getRepository().get(id, user);
         if (null == entity) {
             return null;
@@ -184,12 +233,29 @@ public abstract class BaseService<M extends BaseModel<I>, C extends BaseCriteria
         this.preUpdate(pre, dto, user);
         this.onUpdate(dto, entity, user);
         M updated = this.getRepository().update(entity, user);
+        this.invalidateCached(List.of(id));
         this.postUpdate(pre, updated, dto, user);
-        return this.get(entity.getId(), user);
+        return this.getAfterUpdate(updated, user);
     }
 
     protected abstract void onUpdate(D dto, M entity, U user);
 
+    private M getAfterUpdate(M model, U user) {
+        if (this.isReadAfterUpdate()) {
+            return this.get(model.getId(), user);
+        }
+        this.postFetch(this.getEmptyCriteria(), List.of(model), user);
+        return model;
+    }
+
+    /**
+     * if true, updated and patched models are read again, models returned by repository are used otherwise;
+     * by default models are read again unless repository returns updated rows, see {@link BaseRepository#isUpdateReturningRow()}
+     */
+    protected boolean isReadAfterUpdate() {
+        return !this.getRepository().isUpdateReturningRow();
+    }
+
     protected void preUpdate(M previousModel, D dto, U user) {
     }
 
@@ -1,5 +1,6 @@
 package org.bardframework.crud.api.base;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -16,6 +17,15 @@ public class PagedData<M> {
     @JsonProperty("result")
     private List<M> data = new ArrayList<>();
     private long total;
+    /**
+     * false if total is estimated, capped, cached or not calculated (negative).
+     */
+    private boolean totalExact = true;
+    /**
+     * opaque cursor of next page in keyset pagination, null if there is no more data or keyset pagination is not used.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
 
     public PagedData(List<M> data, long total) {
         if (null != data) {
@@ -23,4 +33,14 @@ public class PagedData<M> {
         }
         this.total = total;
     }
+
+    public PagedData(List<M> data, long total, String next) {
+        this(data, total);
+        this.next = next;
+    }
+
+    public PagedData(List<M> data, long total, boolean totalExact, String next) {
+        this(data, total, next);
+        this.totalExact = totalExact;
+    }
 }
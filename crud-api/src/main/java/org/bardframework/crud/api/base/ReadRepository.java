@@ -5,6 +5,9 @@ import org.springframework.data.domain.Sort;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Created by Vahid Zafari on 1/17/17.
@@ -15,6 +18,11 @@ public interface ReadRepository<M extends BaseModel<I>, C extends BaseCriteria<I
 
     List<M> get(Collection<I> ids, U user);
 
+    /**
+     * @return models of given ids in order of ids; not existing ids are skipped, duplicate ids returned once.
+     */
+    List<M> getOrdered(Collection<I> ids, U user);
+
     List<M> get(C criteria, U user);
 
     List<M> getList(C criteria, Pageable pageable, U user);
@@ -25,6 +33,19 @@ public interface ReadRepository<M extends BaseModel<I>, C extends BaseCriteria<I
 
     PagedData<M> get(C criteria, Pageable pageable, U user);
 
+    /**
+     * keyset (seek) pagination, page number of <code>pageable</code> is ignored.
+     *
+     * @param after cursor returned as {@link PagedData#getNext()} of previous page, empty for first page.
+     * @return page of data after given cursor, with cursor of next page; total is calculated for first page only, negative for next pages.
+     */
+    PagedData<M> get(C criteria, Pageable pageable, String after, U user);
+
+    /**
+     * page of data without count query, fetch one more row to find out next page exist or not.
+     */
+    SlicedData<M> getSlice(C criteria, Pageable pageable, U user);
+
     List<I> getIds(C criteria, Pageable pageable, U user);
 
     M getFirst(C criteria, U user);
@@ -35,6 +56,16 @@ public interface ReadRepository<M extends BaseModel<I>, C extends BaseCriteria<I
 
     long getCount(C criteria, U user);
 
+    /**
+     * lazily read data with given criteria; must be called and consumed inside a transaction and closed after use, e.g. with try-with-resources.
+     */
+    Stream<M> stream(C criteria, Sort sort, U user);
+
+    /**
+     * read data with given criteria one by one, without holding all of them in memory.
+     */
+    void forEach(C criteria, Sort sort, Consumer<M> action, U user);
+
     /**
      * @return true if any data with given criteria exist, else otherwise.
      */
@@ -44,4 +75,9 @@ public interface ReadRepository<M extends BaseModel<I>, C extends BaseCriteria<I
      * @return true if no data with given criteria exist, else otherwise.
      */
     boolean isNotExist(C criteria, U user);
+
+    /**
+     * @return those of given ids that exist, in one query.
+     */
+    Set<I> existingIds(Collection<I> ids, U user);
 }
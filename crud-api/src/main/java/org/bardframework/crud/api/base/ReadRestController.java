@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * Created by zafari on 4/12/2015.
@@ -13,6 +14,8 @@ public interface ReadRestController<M extends BaseModel<I>, C extends BaseCriter
 
     String GET_URL = "{id}";
     String FILTER_URL = "filter";
+    String SLICE_URL = FILTER_URL + "/slice";
+    String AFTER_PARAM = "after";
 
     @GetMapping(value = GET_URL)
     default ResponseEntity<M> GET(@PathVariable I id) {
@@ -29,6 +32,22 @@ public interface ReadRestController<M extends BaseModel<I>, C extends BaseCriter
         return this.getService().get(criteria, page, this.getUser());
     }
 
+    /**
+     * keyset pagination, pass empty <code>after</code> for first page and {@link PagedData#getNext()} for next pages.
+     */
+    @GetMapping(value = FILTER_URL, params = AFTER_PARAM)
+    default PagedData<M> FILTER(@ModelAttribute C criteria, Pageable page, @RequestParam(AFTER_PARAM) String after) {
+        return this.getService().get(criteria, page, after, this.getUser());
+    }
+
+    /**
+     * filter without total, for clients that only need to know next page exist or not.
+     */
+    @GetMapping(value = SLICE_URL)
+    default SlicedData<M> SLICE(@ModelAttribute C criteria, Pageable page) {
+        return this.getService().getSlice(criteria, page, this.getUser());
+    }
+
     S getService();
 
     U getUser();
@@ -1,23 +1,47 @@
 package org.bardframework.crud.api.base;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import org.apache.commons.collections4.CollectionUtils;
 import org.bardframework.commons.utils.AssertionUtils;
 import org.bardframework.commons.utils.ReflectionUtils;
+import org.bardframework.crud.api.cache.EntityCache;
+import org.bardframework.crud.api.cache.IdentityMap;
+import org.bardframework.crud.api.cache.QueryResultCache;
+import org.bardframework.crud.api.metrics.OperationMetrics;
 import org.bardframework.form.model.filter.IdFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Created by vahid on 1/17/17.
  */
 public abstract class ReadService<M extends BaseModel<I>, C extends BaseCriteria<I>, R extends ReadRepository<M, C, I, U>, I, U> {
 
+    private static final ObjectMapper CACHE_KEY_MAPPER = JsonMapper.builder()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .findAndAddModules()
+            .build();
+
     protected final Class<M> modelClazz;
     protected final Class<C> criteriaClazz;
     protected final R repository;
+    private OperationMetrics metrics = OperationMetrics.NOOP;
 
     public ReadService(R repository) {
         this.repository = repository;
@@ -29,21 +53,91 @@ public abstract class ReadService<M extends BaseModel<I>, C extends BaseCriteria
         return ReflectionUtils.newInstance(criteriaClazz);
     }
 
+    /**
+     * if {@link #getEntityCache()} is provided, cached models are returned and only missed ids are queried; result is in order of given ids then.
+     */
     public List<M> get(Collection<I> ids, U user) {
         AssertionUtils.notEmpty(ids, "Given ids cannot be empty.");
         if (ids.isEmpty()) {
             return Collections.emptyList();
         }
+        return this.getMetrics().measure(this.getMetricsEntity(), "get", null, () -> this.getByIds(ids, user), List::size);
+    }
+
+    private List<M> getByIds(Collection<I> ids, U user) {
+        EntityCache<Object, M> cache = this.getEntityCache();
+        if (null == cache || isInReadWriteTransaction()) {
+            return this.load(ids, user);
+        }
+        Object scope = this.getEntityCacheScope(user);
+        Map<Object, M> models = cache.getAll(ids.stream().map(id -> new EntityCacheKey<>(id, scope)).collect(Collectors.toList()), keys -> {
+            List<I> missedIds = keys.stream().map(key -> ((EntityCacheKey<I>) key).id()).collect(Collectors.toList());
+            return this.load(missedIds, user).stream().collect(Collectors.toMap(model -> new EntityCacheKey<>(model.getId(), scope), Function.identity(), (first, second) -> first));
+        });
+        return ids.stream().distinct().map(id -> models.get(new EntityCacheKey<>(id, scope))).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * get by ids in order of given ids, missed ids are skipped.
+     */
+    public List<M> getOrdered(Collection<I> ids, U user) {
+        AssertionUtils.notNull(ids, "Given ids cannot be null.");
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<I, M> models = new HashMap<>();
+        for (M model : this.get(ids, user)) {
+            models.put(model.getId(), model);
+        }
+        return ids.stream().map(models::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * whole id collection is given to repository, which reads large collections in chunks (in parallel, if configured) by itself;
+     * fetch hooks get a criteria of given ids, restrictions added to it by {@link #preFetch(BaseCriteria, Object)} are not applied to this read.
+     */
+    private List<M> load(Collection<I> ids, U user) {
         C criteria = this.getEmptyCriteria();
         criteria.setIdFilter(new IdFilter<I>().setIn(ids));
-        return this.get(criteria, user);
+        this.preFetch(criteria, user);
+        List<M> models = this.getRepository().get(ids, user);
+        this.postFetch(criteria, models, user);
+        return models;
     }
 
     /**
-     * get by id
+     * get by id, served from identity map of current transaction if {@link #isIdentityMapEnabled()}, then from {@link #getEntityCache()} if provided.
      */
     public M get(I id, U user) {
         AssertionUtils.notNull(id, "Given id cannot be null.");
+        return this.getMetrics().measure(this.getMetricsEntity(), "get", null, () -> this.getById(id, user), model -> 1);
+    }
+
+    private M getById(I id, U user) {
+        IdentityMap<Object, M> identityMap = this.isIdentityMapEnabled() ? IdentityMap.current(this) : null;
+        if (null == identityMap) {
+            return this.getCached(id, user);
+        }
+        Object key = new EntityCacheKey<>(id, this.getEntityCacheScope(user));
+        M model = identityMap.get(key);
+        if (null == model) {
+            model = this.getCached(id, user);
+            if (null != model) {
+                identityMap.put(key, model);
+            }
+        }
+        return model;
+    }
+
+    private M getCached(I id, U user) {
+        EntityCache<Object, M> cache = this.getEntityCache();
+        if (null == cache || isInReadWriteTransaction()) {
+            return this.load(id, user);
+        }
+        return cache.get(new EntityCacheKey<>(id, this.getEntityCacheScope(user)), key -> this.load(id, user));
+    }
+
+    private M load(I id, U user) {
         C criteria = this.getEmptyCriteria();
         criteria.setIdFilter(new IdFilter<I>().setEquals(id));
         List<M> models = this.get(criteria, user);
@@ -80,15 +174,132 @@ public abstract class ReadService<M extends BaseModel<I>, C extends BaseCriteria
         return model;
     }
 
+    /**
+     * result is served from {@link #getResultCache()} if provided; cache is bypassed inside read-write transactions, because result may contain uncommitted data.
+     * each caller gets its own copy of cached paged data, models of it are shared between callers and must not be changed.
+     */
     public PagedData<M> get(C criteria, Pageable pageable, U user) {
         AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
         AssertionUtils.notNull(pageable, "Given pageable cannot be null.");
+        return this.getMetrics().measure(this.getMetricsEntity(), "page", () -> this.getQueryShape(criteria, pageable), () -> {
+            QueryResultCache<Object, PagedData<M>> cache = this.getResultCache();
+            if (null == cache || isInReadWriteTransaction()) {
+                return this.fetch(criteria, pageable, user);
+            }
+            return ReadService.copyOf(cache.get(this.getResultCacheKey(criteria, pageable, user), () -> this.fetch(criteria, pageable, user)));
+        }, pagedData -> pagedData.getData().size());
+    }
+
+    private static <M> PagedData<M> copyOf(PagedData<M> pagedData) {
+        return new PagedData<>(pagedData.getData(), pagedData.getTotal(), pagedData.isTotalExact(), pagedData.getNext());
+    }
+
+    private PagedData<M> fetch(C criteria, Pageable pageable, U user) {
         this.preFetch(criteria, user);
         PagedData<M> pagedData = this.getRepository().get(criteria, pageable, user);
         this.postFetch(criteria, pagedData.getData(), user);
         return pagedData;
     }
 
+    /**
+     * keyset pagination, see {@link ReadRepository#get(BaseCriteria, Pageable, String, Object)}
+     */
+    public PagedData<M> get(C criteria, Pageable pageable, String after, U user) {
+        AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
+        AssertionUtils.notNull(pageable, "Given pageable cannot be null.");
+        return this.getMetrics().measure(this.getMetricsEntity(), "page", () -> "keyset:" + this.getQueryShape(criteria, pageable), () -> {
+            this.preFetch(criteria, user);
+            PagedData<M> pagedData = this.getRepository().get(criteria, pageable, after, user);
+            this.postFetch(criteria, pagedData.getData(), user);
+            return pagedData;
+        }, pagedData -> pagedData.getData().size());
+    }
+
+    public SlicedData<M> getSlice(C criteria, Pageable pageable, U user) {
+        AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
+        AssertionUtils.notNull(pageable, "Given pageable cannot be null.");
+        this.preFetch(criteria, user);
+        SlicedData<M> slicedData = this.getRepository().getSlice(criteria, pageable, user);
+        this.postFetch(criteria, slicedData.getData(), user);
+        return slicedData;
+    }
+
+    /**
+     * opt-in cache of paged results, null (default) disables caching; cached paged data is never returned itself, see {@link #get(BaseCriteria, Pageable, Object)}.
+     * the same instance must be returned on each call, e.g. a field of service.
+     */
+    protected QueryResultCache<Object, PagedData<M>> getResultCache() {
+        return null;
+    }
+
+    /**
+     * @return visibility scope of user; results of users with equal scope are shared in cache.
+     */
+    protected Object getResultCacheScope(U user) {
+        return user;
+    }
+
+    protected Object getResultCacheKey(C criteria, Pageable pageable, U user) {
+        try {
+            return new ResultCacheKey(CACHE_KEY_MAPPER.writeValueAsString(criteria), pageable, this.getResultCacheScope(user));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("can't make cache key of criteria " + criteria, e);
+        }
+    }
+
+    /**
+     * invalidate cached results after commit of current transaction
+     */
+    protected void invalidateResultCache() {
+        QueryResultCache<Object, PagedData<M>> cache = this.getResultCache();
+        if (null != cache) {
+            cache.invalidateAfterCommit();
+        }
+    }
+
+    /**
+     * opt-in cache of get by id(s), null (default) disables caching; returned models are shared between callers and must not be changed.
+     * the same instance must be returned on each call, e.g. a field of service.
+     */
+    protected EntityCache<Object, M> getEntityCache() {
+        return null;
+    }
+
+    /**
+     * @return visibility scope of user; models are shared in cache between users with equal scope.
+     */
+    protected Object getEntityCacheScope(U user) {
+        return user;
+    }
+
+    /**
+     * if true, get by id is served once per transaction; models are shared inside transaction and must not be changed.
+     * writes of {@link BaseService} evict written ids, direct writes through repository must call {@link #invalidateCached(Collection)}.
+     */
+    protected boolean isIdentityMapEnabled() {
+        return false;
+    }
+
+    /**
+     * evict models of given ids from identity map of current transaction, and invalidate them and cached results after commit of current transaction
+     */
+    public void invalidateCached(Collection<I> ids) {
+        Set<I> invalidIds = new HashSet<>(ids);
+        IdentityMap<Object, M> identityMap = IdentityMap.getIfBound(this);
+        if (null != identityMap) {
+            identityMap.remove(key -> invalidIds.contains(((EntityCacheKey<I>) key).id()));
+        }
+        EntityCache<Object, M> cache = this.getEntityCache();
+        if (null != cache) {
+            cache.invalidateAfterCommit(key -> invalidIds.contains(((EntityCacheKey<I>) key).id()));
+        }
+        this.invalidateResultCache();
+    }
+
+    private static boolean isInReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
     protected void preFetch(C criteria, U user) {
     }
 
@@ -101,12 +312,99 @@ public abstract class ReadService<M extends BaseModel<I>, C extends BaseCriteria
     protected void postFetch(M model, U user) {
     }
 
+    /**
+     * metrics of operations of this service, {@link OperationMetrics#NOOP} if not set.
+     */
+    public OperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * injected if an {@link OperationMetrics} bean exists, e.g. a {@link org.bardframework.crud.api.metrics.MicrometerOperationMetrics} of meter registry.
+     */
+    @Autowired(required = false)
+    public void setMetrics(OperationMetrics metrics) {
+        this.metrics = null == metrics ? OperationMetrics.NOOP : metrics;
+    }
+
+    public String getMetricsEntity() {
+        return modelClazz.getSimpleName();
+    }
+
+    /**
+     * @return bounded description of paged query used as metrics tag, sort properties by default.
+     */
+    protected String getQueryShape(C criteria, Pageable pageable) {
+        if (pageable.getSort().isUnsorted()) {
+            return "unsorted";
+        }
+        return pageable.getSort().stream().map(Sort.Order::getProperty).collect(Collectors.joining(","));
+    }
+
+    /**
+     * async variant of {@link #get(Object, Object)}, see {@link #async(Supplier)}
+     */
+    public CompletableFuture<M> getAsync(I id, U user) {
+        return this.async(() -> this.get(id, user));
+    }
+
+    /**
+     * async variant of {@link #get(BaseCriteria, Pageable, Object)}, see {@link #async(Supplier)}
+     */
+    public CompletableFuture<PagedData<M>> getPagedAsync(C criteria, Pageable pageable, U user) {
+        return this.async(() -> this.get(criteria, pageable, user));
+    }
+
+    /**
+     * async variant of {@link #getCount(BaseCriteria, Object)}, see {@link #async(Supplier)}
+     */
+    public CompletableFuture<Long> getCountAsync(C criteria, U user) {
+        return this.async(() -> this.getCount(criteria, user));
+    }
+
+    /**
+     * run given task on {@link #getAsyncExecutor()} with locale context of caller; user is passed to task explicitly.
+     * task does not join transaction of caller, repository methods run in their own transactions, so changes not committed by caller are not visible to it.
+     *
+     * @throws IllegalStateException if {@link #getAsyncExecutor()} is not provided
+     */
+    protected <T> CompletableFuture<T> async(Supplier<T> task) {
+        Executor executor = this.getAsyncExecutor();
+        if (null == executor) {
+            throw new IllegalStateException("async executor not provided, can't run asynchronously.");
+        }
+        return CompletableFuture.supplyAsync(this.withCallerContext(task), executor);
+    }
+
+    /**
+     * wrap task to run with thread bound context of caller; override to carry other contexts, e.g. security context.
+     */
+    protected <T> Supplier<T> withCallerContext(Supplier<T> task) {
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        return () -> {
+            LocaleContext previous = LocaleContextHolder.getLocaleContext();
+            LocaleContextHolder.setLocaleContext(localeContext);
+            try {
+                return task.get();
+            } finally {
+                LocaleContextHolder.setLocaleContext(previous);
+            }
+        };
+    }
+
+    /**
+     * executor of async methods, e.g. a virtual thread per task executor; async methods are not allowed if null (default).
+     */
+    protected Executor getAsyncExecutor() {
+        return null;
+    }
+
     public List<I> getIds(C criteria, U user) {
         return this.getRepository().getIds(criteria, user);
     }
 
     public long getCount(C criteria, U user) {
-        return this.getRepository().getCount(criteria, user);
+        return this.getMetrics().measure(this.getMetricsEntity(), "count", null, () -> this.getRepository().getCount(criteria, user), Long::longValue);
     }
 
     public boolean isExist(C criteria, U user) {
@@ -117,7 +415,17 @@ public abstract class ReadService<M extends BaseModel<I>, C extends BaseCriteria
         return this.getRepository().isNotExist(criteria, user);
     }
 
+    public Set<I> existingIds(Collection<I> ids, U user) {
+        return this.getRepository().existingIds(ids, user);
+    }
+
     public R getRepository() {
         return repository;
     }
+
+    private record ResultCacheKey(String criteria, Pageable pageable, Object scope) {
+    }
+
+    private record EntityCacheKey<I>(I id, Object scope) {
+    }
 }
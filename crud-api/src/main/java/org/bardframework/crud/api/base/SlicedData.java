@@ -0,0 +1,29 @@
+package org.bardframework.crud.api.base;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * page of data without total, only says whether next page exist.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class SlicedData<M> {
+
+    @JsonProperty("result")
+    private List<M> data = new ArrayList<>();
+    private boolean hasNext;
+
+    public SlicedData(List<M> data, boolean hasNext) {
+        if (null != data) {
+            this.data.addAll(data);
+        }
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,255 @@
+package org.bardframework.crud.api.cache;
+
+import org.bardframework.commons.utils.AssertionUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * bounded entity cache with W-TinyLFU policy: new entries enter a small lru window, entry evicted from window is admitted to main
+ * segmented lru (probation, protected) only if it is accessed more frequently than main victim, frequencies are kept in an aging count-min sketch.
+ * entries loaded before an invalidation are not cached.
+ */
+public class EntityCache<K, V> {
+
+    private final int windowMaxSize;
+    private final int mainMaxSize;
+    private final int protectedMaxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> protect = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    public EntityCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * @param ttl time to live of entries, null means entries live until evicted or invalidated.
+     */
+    public EntityCache(int maxSize, Duration ttl) {
+        if (maxSize < 2) {
+            throw new IllegalArgumentException("max size of entity cache must be greater than one.");
+        }
+        if (null != ttl && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("ttl of entity cache must be positive.");
+        }
+        this.windowMaxSize = Math.max(1, maxSize / 100);
+        this.mainMaxSize = maxSize - windowMaxSize;
+        this.protectedMaxSize = Math.max(1, mainMaxSize * 4 / 5);
+        this.ttlNanos = null == ttl ? Long.MAX_VALUE : ttl.toNanos();
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        AssertionUtils.notNull(key, "key cannot be null.");
+        return this.getAll(List.of(key), keys -> {
+            V value = loader.apply(keys.get(0));
+            return null == value ? Map.of() : Map.of(keys.get(0), value);
+        }).get(key);
+    }
+
+    /**
+     * @param loader load missed keys, each key once; keys not exist in returned map are not cached.
+     * @return found values of given keys
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        AssertionUtils.notNull(keys, "keys cannot be null.");
+        Map<K, V> result = new HashMap<>();
+        Set<K> missed = new LinkedHashSet<>();
+        long loadGeneration;
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (K key : keys) {
+                if (result.containsKey(key) || missed.contains(key)) {
+                    continue;
+                }
+                V value = this.getIfPresent(key, now);
+                if (null == value) {
+                    missed.add(key);
+                } else {
+                    result.put(key, value);
+                }
+            }
+            loadGeneration = generation;
+        }
+        hits.add(result.size());
+        if (missed.isEmpty()) {
+            return result;
+        }
+        misses.add(missed.size());
+        Map<K, V> loaded = loader.apply(new ArrayList<>(missed));
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                loaded.forEach((key, value) -> this.put(key, value, now));
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public synchronized void invalidate(Predicate<K> predicate) {
+        generation++;
+        window.keySet().removeIf(predicate);
+        probation.keySet().removeIf(predicate);
+        protect.keySet().removeIf(predicate);
+    }
+
+    /**
+     * invalidate after commit of current transaction, or immediately if no transaction synchronization is active.
+     */
+    public void invalidateAfterCommit(Predicate<K> predicate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.invalidate(predicate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(predicate);
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protect.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private V getIfPresent(K key, long now) {
+        sketch.increment(key);
+        Entry<V> entry = window.get(key);
+        if (null == entry) {
+            entry = protect.get(key);
+        }
+        if (null == entry && null != (entry = probation.remove(key))) {
+            protect.put(key, entry);
+            if (protect.size() > protectedMaxSize) {
+                Map.Entry<K, Entry<V>> demoted = this.removeEldest(protect);
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+        }
+        if (null == entry) {
+            return null;
+        }
+        if (now - entry.created() >= ttlNanos) {
+            window.remove(key);
+            protect.remove(key);
+            evictions.increment();
+            return null;
+        }
+        return entry.value();
+    }
+
+    private void put(K key, V value, long now) {
+        Entry<V> entry = new Entry<>(value, now);
+        if (protect.containsKey(key)) {
+            protect.put(key, entry);
+            return;
+        }
+        if (probation.containsKey(key)) {
+            probation.put(key, entry);
+            return;
+        }
+        window.put(key, entry);
+        if (window.size() <= windowMaxSize) {
+            return;
+        }
+        Map.Entry<K, Entry<V>> candidate = this.removeEldest(window);
+        if (probation.size() + protect.size() < mainMaxSize) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        LinkedHashMap<K, Entry<V>> victimSegment = probation.isEmpty() ? protect : probation;
+        K victim = victimSegment.keySet().iterator().next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+            victimSegment.remove(victim);
+            probation.put(candidate.getKey(), candidate.getValue());
+        }
+        evictions.increment();
+    }
+
+    private Map.Entry<K, Entry<V>> removeEldest(LinkedHashMap<K, Entry<V>> segment) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = segment.entrySet().iterator();
+        Map.Entry<K, Entry<V>> next = iterator.next();
+        Map.Entry<K, Entry<V>> eldest = Map.entry(next.getKey(), next.getValue());
+        iterator.remove();
+        return eldest;
+    }
+
+    private record Entry<V>(V value, long created) {
+    }
+
+    /**
+     * count-min sketch of 4 rows with counters saturated at 15; all counters are halved after <code>10 * maxSize</code> increments, so old popularity fades.
+     */
+    private static class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb3c4d5e7, 0xc2b2ae35, 0x27d4eb2f};
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maxSize) {
+            int width = Integer.highestOneBit(Math.max(16, maxSize) - 1) << 1;
+            this.table = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * maxSize;
+        }
+
+        private void increment(Object key) {
+            int hash = key.hashCode();
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = this.index(hash, i);
+                if (table[i][index] < 15) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (byte[] row : table) {
+                    for (int j = 0; j < row.length; j++) {
+                        row[j] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        private int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, table[i][this.index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
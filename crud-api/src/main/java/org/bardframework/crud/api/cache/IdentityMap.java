@@ -0,0 +1,75 @@
+package org.bardframework.crud.api.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * unit of work identity map bound to current transaction; unbound when transaction suspends or completes, so it never leaks to other transactions.
+ */
+public final class IdentityMap<K, V> {
+
+    private final Map<K, V> entries = new HashMap<>();
+
+    private IdentityMap() {
+    }
+
+    /**
+     * @param owner key of map in transaction resources, e.g. service instance
+     * @return identity map of given owner in current transaction, null if transaction synchronization is not active.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> IdentityMap<K, V> current(Object owner) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        IdentityMap<K, V> identityMap = (IdentityMap<K, V>) TransactionSynchronizationManager.getResource(owner);
+        if (null == identityMap) {
+            identityMap = new IdentityMap<>();
+            TransactionSynchronizationManager.bindResource(owner, identityMap);
+            TransactionSynchronizationManager.registerSynchronization(new Binding(owner, identityMap));
+        }
+        return identityMap;
+    }
+
+    /**
+     * @return identity map of given owner if already bound to current transaction, null otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> IdentityMap<K, V> getIfBound(Object owner) {
+        return (IdentityMap<K, V>) TransactionSynchronizationManager.getResource(owner);
+    }
+
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public void remove(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    private record Binding(Object owner, IdentityMap<?, ?> identityMap) implements TransactionSynchronization {
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(owner, identityMap);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+        }
+    }
+}
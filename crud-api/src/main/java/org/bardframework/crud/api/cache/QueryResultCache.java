@@ -0,0 +1,118 @@
+package org.bardframework.crud.api.cache;
+
+import org.bardframework.commons.utils.AssertionUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * bounded (size and ttl) lru cache of query results of one entity type.
+ * result loaded before an invalidation is not cached, so a read racing with a write never stores stale data.
+ */
+public class QueryResultCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    public QueryResultCache(int maxSize, Duration ttl) {
+        AssertionUtils.notNull(ttl, "ttl cannot be null.");
+        if (maxSize <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("max size and ttl of query result cache must be positive.");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > QueryResultCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (null != entry) {
+                if (now - entry.created() < ttlNanos) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        V value = loader.get();
+        synchronized (entries) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry<>(value, now));
+            }
+        }
+        return value;
+    }
+
+    public void invalidate() {
+        synchronized (entries) {
+            generation++;
+            evictions.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * invalidate after commit of current transaction, or immediately if no transaction synchronization is active.
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return count of entries removed because of size, ttl or invalidation.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private record Entry<V>(V value, long created) {
+    }
+}
@@ -0,0 +1,62 @@
+package org.bardframework.crud.api.cancellation;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * open a {@link CancellationScope} per request, available as request attribute {@link #SCOPE_ATTRIBUTE}.
+ * only async requests are cancelled: scope is cancelled when async processing times out or fails (e.g. client disconnect reported by container);
+ * work of async request must run in scope, see {@link CancellationScope#call(java.util.function.Supplier)}.
+ * blocking requests are never cancelled, servlet api can't detect client disconnect while they run; statement timeouts must bound them.
+ * <p>
+ * filter is not registered automatically, register it like any servlet filter, e.g. as a bean of
+ * <code>FilterRegistrationBean&lt;CancellationFilter&gt;</code> with async supported.
+ */
+public class CancellationFilter extends OncePerRequestFilter {
+
+    public static final String SCOPE_ATTRIBUTE = CancellationScope.class.getName();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        CancellationScope scope = CancellationScope.open();
+        request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        scope.cancel();
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        scope.cancel();
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            }
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package org.bardframework.crud.api.cancellation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * running operations (e.g. jdbc statements) of one unit of work, like an http request, that can be cancelled together from another thread.
+ * scope is bound to thread that opens it; use {@link #call(Supplier)} to run work of scope on other threads.
+ */
+@Slf4j
+public final class CancellationScope {
+
+    private static final ThreadLocal<CancellationScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Cancellable> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private CancellationScope() {
+    }
+
+    /**
+     * open a new scope and bind it to current thread, must be closed by {@link #close()}
+     */
+    public static CancellationScope open() {
+        CancellationScope scope = new CancellationScope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return scope bound to current thread, null if there is not any
+     */
+    public static CancellationScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * run given work with this scope bound to current thread
+     */
+    public <T> T call(Supplier<T> work) {
+        CancellationScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (null == previous) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * unbind scope from current thread
+     */
+    public void close() {
+        if (this == CURRENT.get()) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * register a running operation; it is cancelled immediately if scope is already cancelled.
+     */
+    public void register(Cancellable cancellable) {
+        running.add(cancellable);
+        if (cancelled) {
+            this.cancel(cancellable);
+        }
+    }
+
+    public void unregister(Cancellable cancellable) {
+        running.remove(cancellable);
+    }
+
+    /**
+     * cancel running operations and operations registered later
+     */
+    public void cancel() {
+        cancelled = true;
+        running.forEach(this::cancel);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void cancel(Cancellable cancellable) {
+        try {
+            cancellable.cancel();
+        } catch (Exception e) {
+            log.warn("can't cancel running operation.", e);
+        }
+        running.remove(cancellable);
+    }
+
+    @FunctionalInterface
+    public interface Cancellable {
+        void cancel() throws Exception;
+    }
+}
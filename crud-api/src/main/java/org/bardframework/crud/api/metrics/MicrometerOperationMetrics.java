@@ -0,0 +1,80 @@
+package org.bardframework.crud.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bardframework.commons.utils.AssertionUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * micrometer backed metrics: timer <code>bard.crud.operation</code> (tags entity, operation, shape, outcome) and
+ * distribution summary <code>bard.crud.rows</code> (tags entity, operation).
+ * at most <code>maxShapes</code> distinct shapes are tagged, others are tagged as <code>other</code>, so cardinality is bounded.
+ * services pick it up when declared as a bean, e.g. <code>@Bean OperationMetrics operationMetrics(MeterRegistry registry)</code>.
+ */
+public class MicrometerOperationMetrics implements OperationMetrics {
+
+    private final MeterRegistry registry;
+    private final int maxShapes;
+    private final Set<String> shapes = ConcurrentHashMap.newKeySet();
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public MicrometerOperationMetrics(MeterRegistry registry) {
+        this(registry, 100);
+    }
+
+    public MicrometerOperationMetrics(MeterRegistry registry, int maxShapes) {
+        AssertionUtils.notNull(registry, "meter registry cannot be null.");
+        this.registry = registry;
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void record(String entity, String operation, String shape, long durationNanos, long rows, Throwable error) {
+        MeterKey timerKey = new MeterKey(entity, operation, this.bound(shape), null == error ? "success" : "error");
+        timers.computeIfAbsent(timerKey, key -> Timer.builder("bard.crud.operation")
+                .tag("entity", key.entity())
+                .tag("operation", key.operation())
+                .tag("shape", key.shape())
+                .tag("outcome", key.outcome())
+                .register(registry)
+        ).record(durationNanos, TimeUnit.NANOSECONDS);
+        if (null != error) {
+            return;
+        }
+        summaries.computeIfAbsent(new MeterKey(entity, operation, null, null), key -> DistributionSummary.builder("bard.crud.rows")
+                .baseUnit("rows")
+                .tag("entity", key.entity())
+                .tag("operation", key.operation())
+                .register(registry)
+        ).record(rows);
+    }
+
+    private String bound(String shape) {
+        if (null == shape) {
+            return "none";
+        }
+        if (shapes.contains(shape)) {
+            return shape;
+        }
+        synchronized (shapes) {
+            if (shapes.contains(shape) || shapes.size() < maxShapes && shapes.add(shape)) {
+                return shape;
+            }
+        }
+        return "other";
+    }
+
+    private record MeterKey(String entity, String operation, String shape, String outcome) {
+    }
+}
@@ -0,0 +1,50 @@
+package org.bardframework.crud.api.metrics;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * records timing and rows of crud operations per entity and operation; disabled metrics cost only a check.
+ */
+public interface OperationMetrics {
+
+    OperationMetrics NOOP = new OperationMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void record(String entity, String operation, String shape, long durationNanos, long rows, Throwable error) {
+        }
+    };
+
+    boolean isEnabled();
+
+    /**
+     * @param shape  bounded description of query, e.g. sort properties; null if not applicable
+     * @param rows   rows returned or affected
+     * @param error  failure of operation, null if succeeded
+     */
+    void record(String entity, String operation, String shape, long durationNanos, long rows, Throwable error);
+
+    /**
+     * @param shape supplier of shape, called only if metrics are enabled; null if not applicable
+     */
+    default <T> T measure(String entity, String operation, Supplier<String> shape, Supplier<T> action, ToLongFunction<T> rows) {
+        if (!this.isEnabled()) {
+            return action.get();
+        }
+        String operationShape = null == shape ? null : shape.get();
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            this.record(entity, operation, operationShape, System.nanoTime() - start, 0, e);
+            throw e;
+        }
+        this.record(entity, operation, operationShape, System.nanoTime() - start, null == result ? 0 : rows.applyAsLong(result), null);
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package org.bardframework.crud.api.searchable;
 
 import org.bardframework.crud.api.base.BaseModel;
+import org.bardframework.crud.api.metrics.OperationMetrics;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -8,7 +9,18 @@ import java.util.List;
 public interface SearchableEntityService<M extends BaseModel<I>, C extends SearchableEntityCriteria, R extends SearchableEntityRepository<M, C, I, U>, I, U> {
 
     default List<M> search(C criteria, Pageable pageable, U user) {
-        return this.getRepository().search(criteria, pageable, user);
+        return this.getMetrics().measure(this.getMetricsEntity(), "search", null, () -> this.getRepository().search(criteria, pageable, user), List::size);
+    }
+
+    /**
+     * implemented by {@link org.bardframework.crud.api.base.ReadService#getMetrics()}
+     */
+    default OperationMetrics getMetrics() {
+        return OperationMetrics.NOOP;
+    }
+
+    default String getMetricsEntity() {
+        return this.getClass().getSimpleName();
     }
 
     R getRepository();
@@ -3,6 +3,7 @@ package org.bardframework.crud.api.tree;
 import org.bardframework.crud.api.base.BaseCriteria;
 import org.bardframework.crud.api.base.BaseModel;
 import org.bardframework.crud.api.base.BaseRepository;
+import org.bardframework.crud.api.metrics.OperationMetrics;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
@@ -25,11 +26,22 @@ public interface TreeEntityService<M extends BaseModel<I> & TreeEntityModel<M>,
     Logger getLogger();
 
     default M getTree(U user) {
-        return this.toTree(this.getRepository().get(this.getEmptyCriteria(), user));
+        return this.toTree(this.getMetrics().measure(this.getMetricsEntity(), "tree", null, () -> this.getRepository().get(this.getEmptyCriteria(), user), List::size));
     }
 
     default M getTree(I rootId, U user) {
-        return this.toTree(this.getRepository().getWithChildren(rootId, user));
+        return this.toTree(this.getMetrics().measure(this.getMetricsEntity(), "tree", null, () -> this.getRepository().getWithChildren(rootId, user), List::size));
+    }
+
+    /**
+     * implemented by {@link org.bardframework.crud.api.base.ReadService#getMetrics()}
+     */
+    default OperationMetrics getMetrics() {
+        return OperationMetrics.NOOP;
+    }
+
+    default String getMetricsEntity() {
+        return this.getClass().getSimpleName();
     }
 
     default M toTree(List<M> list) {
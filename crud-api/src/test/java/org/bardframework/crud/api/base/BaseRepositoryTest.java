@@ -246,6 +246,36 @@ public interface BaseRepositoryTest<M extends BaseModel<I>, C extends BaseCriter
         assertThat(this.getRepository().get(model.getId(), user)).isNull();
     }
 
+    /*----------------------- Upsert ---------------------*/
+
+    @Test
+    default void testUpsert() {
+        U user = this.getDataProvider().getUser();
+        M savedModel = this.getDataProvider().getModel(user);
+        List<M> unsavedModels = this.getDataProvider().getUnsavedModels(2, user);
+        /*
+            values of another model with id of saved model, so the existing row is changed.
+         */
+        M changedModel = unsavedModels.get(0);
+        changedModel.setId(savedModel.getId());
+        M newModel = unsavedModels.get(1);
+        List<M> result = this.getRepository().upsert(List.of(changedModel, newModel), user);
+        assertThat(result).hasSize(2);
+        assertThat(newModel.getId()).isNotNull().isNotEqualTo(savedModel.getId());
+        M updated = this.getRepository().get(savedModel.getId(), user);
+        assertThat(updated).isNotNull();
+        this.getDataProvider().assertEqualUpdate(changedModel, updated);
+        M inserted = this.getRepository().get(newModel.getId(), user);
+        assertThat(inserted).isNotNull();
+        this.getDataProvider().assertEqualSave(newModel, inserted);
+    }
+
+    @Test
+    default void testUpsertNull() {
+        U user = this.getDataProvider().getUser();
+        assertThatExceptionOfType(Exception.class).isThrownBy(() -> this.getRepository().upsert(null, user));
+    }
+
     /*---------------------- Filter ------------------------*/
     @Test
     default void testFilter() {
@@ -258,6 +288,28 @@ public interface BaseRepositoryTest<M extends BaseModel<I>, C extends BaseCriter
         assertThat(pagedData.getData()).isNotEmpty();
     }
 
+    @Test
+    default void testFilterAfter() {
+        U user = this.getDataProvider().getUser();
+        this.getDataProvider().getModels(2, user);
+        C criteria = this.getDataProvider().getEmptyCriteria();
+        PagedData<M> first = this.getRepository().get(criteria, PageRequest.of(1, 1), "", user);
+        assertThat(first.getData()).hasSize(1);
+        assertThat(first.getNext()).isNotBlank();
+        PagedData<M> second = this.getRepository().get(criteria, PageRequest.of(1, 1), first.getNext(), user);
+        assertThat(second.getData()).hasSize(1);
+        assertThat(second.getData().get(0).getId()).isNotEqualTo(first.getData().get(0).getId());
+    }
+
+    @Test
+    default void testFilterSlice() {
+        U user = this.getDataProvider().getUser();
+        this.getDataProvider().getModels(2, user);
+        SlicedData<M> slicedData = this.getRepository().getSlice(this.getDataProvider().getEmptyCriteria(), PageRequest.of(1, 1), user);
+        assertThat(slicedData.getData()).hasSize(1);
+        assertThat(slicedData.isHasNext()).isTrue();
+    }
+
     @Test
     default void testFilterNull() {
         U user = this.getDataProvider().getUser();
@@ -331,6 +383,14 @@ public interface BaseRepositoryTest<M extends BaseModel<I>, C extends BaseCriter
         assertThat(result).isTrue();
     }
 
+    @Test
+    default void testExistingIds() {
+        U user = this.getDataProvider().getUser();
+        I id = this.getDataProvider().getId(user);
+        I invalidId = this.getDataProvider().getInvalidId();
+        assertThat(this.getRepository().existingIds(List.of(id, invalidId), user)).containsExactly(id);
+    }
+
     @Test
     default void testIsExistNull() {
         U user = this.getDataProvider().getUser();
@@ -1,19 +1,23 @@
 package org.bardframework.crud.api.base;
 
 import org.apache.commons.lang3.RandomUtils;
+import org.bardframework.crud.api.cache.QueryResultCache;
 import org.bardframework.form.model.filter.IdFilter;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public interface BaseServiceTest<M extends BaseModel<I>, C extends BaseCriteria<I>, D, S extends BaseService<M, C, D, ?, I, U>, P extends ServiceDataProvider<M, C, D, S, ?, I, U>, I, U> {
 
@@ -280,4 +284,83 @@ public interface BaseServiceTest<M extends BaseModel<I>, C extends BaseCriteria<
         U user = this.getDataProvider().getUser();
         assertThatExceptionOfType(Exception.class).isThrownBy(() -> this.getService().get(null, PageRequest.of(1, Integer.MAX_VALUE), user));
     }
+
+    /*----------------------- Result Cache ---------------------*/
+
+    @Test
+    default void testResultCacheReturnsCopies() {
+        QueryResultCache<Object, PagedData<M>> cache = this.assumeResultCache();
+        U user = this.getDataProvider().getUser();
+        this.getDataProvider().saveNew(1, user);
+        PagedData<M> first = this.getService().get(this.getDataProvider().getEmptyCriteria(), PageRequest.of(1, 10), user);
+        first.getData().clear();
+        PagedData<M> second = this.getService().get(this.getDataProvider().getEmptyCriteria(), PageRequest.of(1, 10), user);
+        assertThat(cache.getHitCount()).isPositive();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getData()).isNotEmpty();
+    }
+
+    @Test
+    default void testResultCacheInvalidatedOnSave() {
+        QueryResultCache<Object, PagedData<M>> cache = this.assumeResultCache();
+        U user = this.getDataProvider().getUser();
+        long total = this.getCachedTotal(cache, user);
+        this.getService().save(this.getDataProvider().getDto(), user);
+        assertThat(cache.size()).isZero();
+        assertThat(this.getCachedTotal(cache, user)).isEqualTo(total + 1);
+    }
+
+    @Test
+    default void testResultCacheInvalidatedOnUpdate() {
+        QueryResultCache<Object, PagedData<M>> cache = this.assumeResultCache();
+        U user = this.getDataProvider().getUser();
+        I id = this.getDataProvider().saveNew(1, user).get(0).getId();
+        this.getCachedTotal(cache, user);
+        assertThat(this.getService().update(id, this.getDataProvider().getDto(), user)).isNotNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    default void testResultCacheInvalidatedOnPatch() {
+        QueryResultCache<Object, PagedData<M>> cache = this.assumeResultCache();
+        U user = this.getDataProvider().getUser();
+        M model = this.getDataProvider().saveNew(1, user).get(0);
+        Map<String, Object> patches = this.getDataProvider().getPatches(model);
+        assumeTrue(null != patches && !patches.isEmpty(), "patch is not supported");
+        this.getCachedTotal(cache, user);
+        assertThat(this.getService().patch(model.getId(), patches, user)).isNotNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    default void testResultCacheInvalidatedOnDelete() {
+        QueryResultCache<Object, PagedData<M>> cache = this.assumeResultCache();
+        U user = this.getDataProvider().getUser();
+        I id = this.getDataProvider().saveNew(1, user).get(0).getId();
+        long total = this.getCachedTotal(cache, user);
+        assertThat(this.getService().delete(id, user)).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+        assertThat(this.getCachedTotal(cache, user)).isEqualTo(total - 1);
+    }
+
+    /**
+     * results are cached only out of read-write transactions, so tests run in a transaction are skipped.
+     */
+    private QueryResultCache<Object, PagedData<M>> assumeResultCache() {
+        QueryResultCache<Object, PagedData<M>> cache = this.getService().getResultCache();
+        assumeTrue(null != cache, "result cache is disabled");
+        assumeTrue(!TransactionSynchronizationManager.isActualTransactionActive(), "results are not cached in transaction");
+        return cache;
+    }
+
+    /**
+     * @return total of all models, read twice to make sure it is served from cache.
+     */
+    private long getCachedTotal(QueryResultCache<Object, PagedData<M>> cache, U user) {
+        this.getService().get(this.getDataProvider().getEmptyCriteria(), PageRequest.of(1, 1), user);
+        long hits = cache.getHitCount();
+        long total = this.getService().get(this.getDataProvider().getEmptyCriteria(), PageRequest.of(1, 1), user).getTotal();
+        assertThat(cache.getHitCount()).isEqualTo(hits + 1);
+        return total;
+    }
 }
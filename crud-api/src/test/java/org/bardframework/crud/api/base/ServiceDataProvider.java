@@ -4,6 +4,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -57,6 +58,13 @@ public interface ServiceDataProvider<M extends BaseModel<I>, C extends BaseCrite
         this.makeInvalid(dto);
         return dto;
     }
+
+    /**
+     * @return valid patches of given model, null if patch is not supported.
+     */
+    default Map<String, Object> getPatches(M model) {
+        return null;
+    }
     //...Dto
 
     default void assertEqualSave(M model, D dto) {
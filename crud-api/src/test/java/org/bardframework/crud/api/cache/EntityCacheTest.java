@@ -0,0 +1,142 @@
+package org.bardframework.crud.api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class EntityCacheTest {
+
+    private final List<List<Integer>> loads = new ArrayList<>();
+
+    @Test
+    void testInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new EntityCache<>(1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new EntityCache<>(10, Duration.ZERO));
+    }
+
+    @Test
+    void testGet() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        assertThat(cache.get(1, String::valueOf)).isEqualTo("1");
+        assertThat(cache.get(1, key -> "reloaded")).isEqualTo("1");
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetNotFoundNotCached() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        assertThat(cache.get(1, key -> null)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1, String::valueOf)).isEqualTo("1");
+    }
+
+    @Test
+    void testGetAllLoadsMissedKeysOnce() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        cache.getAll(List.of(1, 2), this.loader());
+        Map<Integer, String> values = cache.getAll(List.of(1, 3, 2, 3, 4, 4, 1), this.loader());
+        assertThat(values).containsOnlyKeys(1, 2, 3, 4).containsEntry(3, "3");
+        assertThat(loads).containsExactly(List.of(1, 2), List.of(3, 4));
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(4);
+    }
+
+    @Test
+    void testGetAllAllCached() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        cache.getAll(List.of(1, 2), this.loader());
+        assertThat(cache.getAll(List.of(2, 1), this.loader())).containsOnlyKeys(1, 2);
+        assertThat(loads).hasSize(1);
+    }
+
+    @Test
+    void testGetAllEmpty() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        assertThat(cache.getAll(List.of(), this.loader())).isEmpty();
+        assertThat(loads).isEmpty();
+    }
+
+    @Test
+    void testInvalidate() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        cache.getAll(List.of(1, 2, 3), this.loader());
+        cache.invalidate(key -> key != 2);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.getAll(List.of(1, 2, 3), this.loader());
+        assertThat(loads).last().isEqualTo(List.of(1, 3));
+    }
+
+    @Test
+    void testInvalidateDuringLoadNotCached() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        assertThat(cache.get(1, key -> {
+            cache.invalidate(invalid -> true);
+            return "stale";
+        })).isEqualTo("stale");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1, String::valueOf)).isEqualTo("1");
+    }
+
+    @Test
+    void testEviction() {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        IntStream.range(0, 100).forEach(key -> cache.get(key, String::valueOf));
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.getEvictionCount()).isEqualTo(90);
+    }
+
+    /**
+     * frequently read keys survive a scan of keys read once, which flushes a plain lru cache.
+     */
+    @Test
+    void testAdmission() {
+        EntityCache<Integer, String> cache = new EntityCache<>(1_000);
+        List<Integer> hotKeys = IntStream.range(0, 100).boxed().toList();
+        for (int i = 0; i < 5; i++) {
+            cache.getAll(hotKeys, this.loader());
+        }
+        IntStream.range(10_000, 12_000).forEach(key -> cache.get(key, String::valueOf));
+        assertThat(cache.size()).isEqualTo(1_000);
+        assertThat(cache.getEvictionCount()).isEqualTo(1_100);
+        assertThat(cache.getAll(hotKeys, this.loader())).hasSize(hotKeys.size());
+        assertThat(loads).hasSize(1);
+    }
+
+    @Test
+    void testTtlExpiry() throws InterruptedException {
+        EntityCache<Integer, String> cache = new EntityCache<>(10, Duration.ofMillis(20));
+        cache.getAll(List.of(1, 2), this.loader());
+        assertThat(cache.getAll(List.of(1, 2), this.loader())).hasSize(2);
+        assertThat(loads).hasSize(1);
+        Thread.sleep(50);
+        assertThat(cache.getAll(List.of(1, 2), this.loader())).hasSize(2);
+        assertThat(loads).hasSize(2).last().isEqualTo(List.of(1, 2));
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testNoTtl() throws InterruptedException {
+        EntityCache<Integer, String> cache = new EntityCache<>(10);
+        cache.get(1, String::valueOf);
+        Thread.sleep(20);
+        cache.get(1, String::valueOf);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    private Function<List<Integer>, Map<Integer, String>> loader() {
+        return keys -> {
+            loads.add(List.copyOf(keys));
+            return keys.stream().collect(Collectors.toMap(Function.identity(), String::valueOf));
+        };
+    }
+}
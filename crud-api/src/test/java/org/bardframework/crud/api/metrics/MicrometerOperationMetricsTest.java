@@ -0,0 +1,91 @@
+package org.bardframework.crud.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class MicrometerOperationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testMeasure() {
+        OperationMetrics metrics = new MicrometerOperationMetrics(registry);
+        assertThat(metrics.measure("Sample", "page", () -> "name", () -> List.of(1, 2, 3), List::size)).hasSize(3);
+        assertThat(metrics.measure("Sample", "page", () -> "name", () -> List.of(1), List::size)).hasSize(1);
+        Timer timer = registry.get("bard.crud.operation").tags("entity", "Sample", "operation", "page", "shape", "name", "outcome", "success").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        DistributionSummary rows = registry.get("bard.crud.rows").tags("entity", "Sample", "operation", "page").summary();
+        assertThat(rows.count()).isEqualTo(2);
+        assertThat(rows.totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void testMeasureError() {
+        OperationMetrics metrics = new MicrometerOperationMetrics(registry);
+        assertThatIllegalStateException().isThrownBy(() -> metrics.measure("Sample", "save", null, () -> {
+            throw new IllegalStateException("failed");
+        }, value -> 1));
+        assertThat(registry.get("bard.crud.operation").tags("shape", "none", "outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(registry.find("bard.crud.rows").summary()).isNull();
+    }
+
+    @Test
+    void testNullResult() {
+        OperationMetrics metrics = new MicrometerOperationMetrics(registry);
+        assertThat(metrics.measure("Sample", "get", null, () -> null, value -> 1)).isNull();
+        assertThat(registry.get("bard.crud.rows").summary().totalAmount()).isZero();
+    }
+
+    @Test
+    void testShapesBounded() {
+        OperationMetrics metrics = new MicrometerOperationMetrics(registry, 2);
+        for (String shape : List.of("a", "b", "c", "a", "d")) {
+            metrics.record("Sample", "page", shape, 1, 1, null);
+        }
+        assertThat(this.getShapes()).containsExactlyInAnyOrder("a", "b", "other");
+        assertThat(registry.get("bard.crud.operation").tag("shape", "other").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testShapesBoundedConcurrently() throws Exception {
+        int maxShapes = 10;
+        OperationMetrics metrics = new MicrometerOperationMetrics(registry, maxShapes);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> tasks = IntStream.range(0, 16).mapToObj(thread -> CompletableFuture.runAsync(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < 100; i++) {
+                metrics.record("Sample", "page", "shape-" + thread + "-" + i, 1, 1, null);
+            }
+        })).toList();
+        start.countDown();
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get();
+        assertThat(this.getShapes()).hasSize(maxShapes + 1).contains("other");
+    }
+
+    @Test
+    void testNoop() {
+        assertThat(OperationMetrics.NOOP.isEnabled()).isFalse();
+        assertThat(OperationMetrics.NOOP.measure("Sample", "get", () -> {
+            throw new AssertionError("shape of disabled metrics is not computed");
+        }, () -> 1, value -> 1)).isEqualTo(1);
+    }
+
+    private List<String> getShapes() {
+        return registry.get("bard.crud.operation").timers().stream().map(timer -> timer.getId().getTag("shape")).distinct().collect(Collectors.toList());
+    }
+}
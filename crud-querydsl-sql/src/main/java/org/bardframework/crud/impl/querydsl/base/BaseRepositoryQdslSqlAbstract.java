@@ -1,30 +1,65 @@
 package org.bardframework.crud.impl.querydsl.base;
 
+import com.querydsl.core.QueryFlag;
 import com.querydsl.core.dml.StoreClause;
+import com.querydsl.core.types.FactoryExpression;
 import com.querydsl.core.types.Path;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.PostgreSQLTemplates;
+import com.querydsl.sql.SQLBindings;
 import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLTemplates;
 import com.querydsl.sql.dml.SQLDeleteClause;
 import com.querydsl.sql.dml.SQLInsertClause;
+import com.querydsl.sql.dml.SQLMergeClause;
 import com.querydsl.sql.dml.SQLUpdateClause;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.bardframework.commons.utils.AssertionUtils;
 import org.bardframework.commons.utils.ReflectionUtils;
 import org.bardframework.crud.api.base.BaseCriteria;
 import org.bardframework.crud.api.base.BaseModel;
 import org.bardframework.crud.api.base.BaseRepository;
+import org.bardframework.crud.impl.querydsl.utils.QueryDslUtils;
 import org.bardframework.form.model.filter.IdFilter;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 /**
  * Created by vahid on 1/17/17.
  */
 public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C extends BaseCriteria<I>, I, U> extends ReadRepositoryQdslSqlAbstract<M, C, I, U> implements BaseRepository<M, C, I, U> {
 
+    private SaveExtendedRepositoryQdslSql<M, U>[] saveExtensions;
+    private UpdateExtendedRepositoryQdslSql<M, U>[] updateExtensions;
+
     public BaseRepositoryQdslSqlAbstract(SQLQueryFactory queryFactory) {
         super(queryFactory);
+        this.saveExtensions = this instanceof SaveExtendedRepositoryQdslSql ? new SaveExtendedRepositoryQdslSql[]{(SaveExtendedRepositoryQdslSql<M, U>) this} : new SaveExtendedRepositoryQdslSql[0];
+        this.updateExtensions = this instanceof UpdateExtendedRepositoryQdslSql ? new UpdateExtendedRepositoryQdslSql[]{(UpdateExtendedRepositoryQdslSql<M, U>) this} : new UpdateExtendedRepositoryQdslSql[0];
+    }
+
+    @Override
+    protected void addExtension(Object extension) {
+        super.addExtension(extension);
+        if (extension instanceof SaveExtendedRepositoryQdslSql) {
+            this.saveExtensions = ArrayUtils.add(this.saveExtensions, (SaveExtendedRepositoryQdslSql<M, U>) extension);
+        }
+        if (extension instanceof UpdateExtendedRepositoryQdslSql) {
+            this.updateExtensions = ArrayUtils.add(this.updateExtensions, (UpdateExtendedRepositoryQdslSql<M, U>) extension);
+        }
     }
 
     protected abstract <T extends StoreClause<T>> void onSave(T clause, M model, U user);
@@ -51,20 +86,128 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
             return Collections.emptyList();
         }
         List<M> list = new ArrayList<>(models);
-        SQLInsertClause insertClause = this.getQueryFactory().insert(this.getEntity());
         this.setIds(list, user);
-        list.forEach(model -> {
-                    this.onSaveInternal(insertClause, model, user);
-                    insertClause.addBatch();
-                }
-        );
-        Long affectedCount = this.insertAndSetIds(list, insertClause);
-        if (null != affectedCount && list.size() != affectedCount) {
-            log.debug("expect insert '{}' row, but '{}' row(s) inserted.", list.size(), affectedCount);
+        if (InsertMode.MULTI_ROW != this.getInsertMode()) {
+            this.insert(list, false, user);
+            return list;
+        }
+        int rowsPerStatement = Math.max(1, this.getInsertParameterBudget() / this.getEntity().getColumns().size());
+        for (List<M> part : ListUtils.partition(list, rowsPerStatement)) {
+            this.insert(part, true, user);
         }
         return list;
     }
 
+    /**
+     * rows are inserted in groups of equal columns, one statement per group; a multi row insert binds columns of its first row only,
+     * and a batch of different statements can't return generated keys.
+     */
+    private void insert(List<M> list, boolean multiRow, U user) {
+        Map<List<Path<?>>, List<Integer>> groups = new LinkedHashMap<>();
+        List<StoreValues> rows = new ArrayList<>(list.size());
+        for (M model : list) {
+            StoreValues row = new StoreValues();
+            this.onSaveInternal(row, model, user);
+            groups.computeIfAbsent(List.copyOf(row.getPaths()), columns -> new ArrayList<>()).add(rows.size());
+            rows.add(row);
+        }
+        for (List<Integer> group : groups.values()) {
+            SQLInsertClause insertClause = this.getQueryFactory().insert(this.getEntity());
+            insertClause.addListener(statementListener);
+            insertClause.setBatchToBulk(multiRow);
+            List<M> models = new ArrayList<>(group.size());
+            for (int index : group) {
+                rows.get(index).applyTo(insertClause);
+                insertClause.addBatch();
+                models.add(list.get(index));
+            }
+            Long affectedCount = this.insertAndSetIds(models, insertClause);
+            if (null != affectedCount && models.size() != affectedCount) {
+                log.debug("expect insert '{}' row, but '{}' row(s) inserted.", models.size(), affectedCount);
+            }
+        }
+    }
+
+    /**
+     * see {@link InsertMode}, {@link InsertMode#BATCH} by default.
+     * in {@link InsertMode#MULTI_ROW} generated keys are mapped to models in insert order, as drivers return them for multi row inserts.
+     */
+    protected InsertMode getInsertMode() {
+        return InsertMode.BATCH;
+    }
+
+    /**
+     * maximum bind parameters of one multi row insert; rows of a statement are limited assuming every column of entity is bound.
+     */
+    protected int getInsertParameterBudget() {
+        return 2000;
+    }
+
+    /**
+     * save models of given iterable (e.g. <code>stream::iterator</code>) in chunks of {@link #getWriteChunkSize()}, so only one chunk is held in memory.
+     * each chunk runs in its own transaction of {@link #getWriteChunkTransactionOperations()} if provided, in caller transaction otherwise;
+     * this method doesn't open a transaction itself, so committed chunks are not held by an outer one.
+     *
+     * @param progress called after each chunk, may be null
+     * @return count of saved models
+     * @throws IllegalStateException if chunk transaction is not provided and there is no caller transaction
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long saveAll(Iterable<M> models, Consumer<ChunkProgress> progress, U user) {
+        return this.writeInChunks(models, chunk -> this.save(chunk, user).size(), progress);
+    }
+
+    /**
+     * update models of given iterable in chunks, see {@link #saveAll(Iterable, Consumer, Object)}
+     *
+     * @return count of updated models
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long updateAll(Iterable<M> models, Consumer<ChunkProgress> progress, U user) {
+        return this.writeInChunks(models, chunk -> this.update(chunk, user).size(), progress);
+    }
+
+    private long writeInChunks(Iterable<M> models, ToIntFunction<List<M>> writer, Consumer<ChunkProgress> progress) {
+        AssertionUtils.notNull(models, "Given models cannot be null.");
+        int chunkSize = this.getWriteChunkSize();
+        TransactionOperations transactionOperations = this.getWriteChunkTransactionOperations();
+        if (null == transactionOperations && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("no transaction to write chunks, call in a transaction or override getWriteChunkTransactionOperations().");
+        }
+        Iterator<M> iterator = models.iterator();
+        List<M> chunk = new ArrayList<>(chunkSize);
+        long written = 0;
+        int chunkNumber = 0;
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() < chunkSize && iterator.hasNext()) {
+                continue;
+            }
+            List<M> current = chunk;
+            written += null == transactionOperations ? writer.applyAsInt(current) : transactionOperations.execute(status -> writer.applyAsInt(current));
+            if (null != progress) {
+                progress.accept(new ChunkProgress(++chunkNumber, current.size(), written));
+            }
+            chunk = new ArrayList<>(chunkSize);
+        }
+        return written;
+    }
+
+    /**
+     * count of models written in one batch by bulk writes
+     */
+    protected int getWriteChunkSize() {
+        return 1000;
+    }
+
+    /**
+     * transaction of each chunk of bulk writes, e.g. {@link org.springframework.transaction.support.TransactionTemplate} with <code>PROPAGATION_REQUIRES_NEW</code>
+     * to commit per chunk and keep locks short; null (default) writes all chunks in caller transaction, which must exist.
+     */
+    protected TransactionOperations getWriteChunkTransactionOperations() {
+        return null;
+    }
+
     protected void setIds(List<M> list, U user) {
         list.forEach(model -> model.setId(this.generateId(model, user)));
     }
@@ -95,11 +238,26 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         return insertClause.executeWithKeys((Path<I>) this.getIdSelectExpression());
     }
 
+    /**
+     * if {@link #isUpdateReturningRow()}, updated row is read by same statement, model is returned as is otherwise.
+     */
     @Transactional
     @Override
     public M update(M model, U user) {
         AssertionUtils.notNull(model, "model cannot be null.");
-        return this.update(Collections.singletonList(model), user).get(0);
+        if (!this.isUpdateReturningRow()) {
+            return this.update(Collections.singletonList(model), user).get(0);
+        }
+        AssertionUtils.notNull(model.getId(), "identifier is not provided, can't update");
+        SQLUpdateClause updateClause = this.getQueryFactory().update(this.getEntity());
+        updateClause.where(this.getPredicate(new IdFilter<I>().setEquals(model.getId()), user));
+        this.onUpdateInternal(updateClause, model, user);
+        M updated = this.executeReturning(updateClause);
+        if (null == updated) {
+            log.debug("expect update '1' row, but '0' row(s) updated.");
+            return model;
+        }
+        return updated;
     }
 
     @Transactional
@@ -110,6 +268,7 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
             return Collections.emptyList();
         }
         SQLUpdateClause updateClause = this.getQueryFactory().update(this.getEntity());
+        updateClause.addListener(statementListener);
         for (M model : models) {
             AssertionUtils.notNull(model.getId(), "identifier is not provided, can't update");
             updateClause.where(this.getPredicate(new IdFilter<I>().setEquals(model.getId()), user));
@@ -123,6 +282,88 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         return new ArrayList<>(models);
     }
 
+    /**
+     * models without id are saved; others are written by one batched statement keyed by id:
+     * <code>INSERT ... ON CONFLICT (id) DO UPDATE</code> if {@link #isInsertOnConflictSupported()}, <code>MERGE</code> otherwise.
+     * values of a row are collected from save hooks then update hooks, a column set by both gets value of update hook.
+     * on conflict only columns set by update hooks are updated; merge writes every collected column on existing rows too.
+     */
+    @Transactional
+    @Override
+    public List<M> upsert(Collection<M> models, U user) {
+        AssertionUtils.notNull(models, "Given models cannot be null.");
+        if (CollectionUtils.isEmpty(models)) {
+            return Collections.emptyList();
+        }
+        List<M> list = new ArrayList<>(models);
+        List<M> identified = list.stream().filter(model -> null != model.getId()).toList();
+        List<M> unidentified = list.stream().filter(model -> null == model.getId()).toList();
+        if (!unidentified.isEmpty()) {
+            this.save(unidentified, user);
+        }
+        if (identified.isEmpty()) {
+            return list;
+        }
+        if (!(this.getIdSelectExpression() instanceof Path<?> idPath)) {
+            throw new IllegalStateException("can't upsert by id, getIdSelectExpression is not instance of Path, override upsert(Collection, U) and implement it.");
+        }
+        List<StoreValues> rows = new ArrayList<>(identified.size());
+        Set<Path<?>> updatedColumns = new LinkedHashSet<>();
+        for (M model : identified) {
+            StoreValues row = new StoreValues();
+            this.onSaveInternal(row, model, user);
+            StoreValues updates = new StoreValues();
+            this.onUpdateInternal(updates, model, user);
+            row.putAll(updates);
+            updatedColumns.addAll(updates.getPaths());
+            rows.add(row);
+        }
+        updatedColumns.remove(idPath);
+        long affectedRowsCount = this.isInsertOnConflictSupported() ? this.insertOnConflict(rows, idPath, updatedColumns) : this.merge(rows, idPath);
+        if (identified.size() != affectedRowsCount) {
+            log.debug("expect upsert '{}' row, but '{}' row(s) written.", identified.size(), affectedRowsCount);
+        }
+        return list;
+    }
+
+    /**
+     * upsert by <code>INSERT ... ON CONFLICT</code> instead of merge; true by default if templates of configuration are PostgreSQL templates.
+     */
+    protected boolean isInsertOnConflictSupported() {
+        return this.getQueryFactory().getConfiguration().getTemplates() instanceof PostgreSQLTemplates;
+    }
+
+    private long insertOnConflict(List<StoreValues> rows, Path<?> idPath, Set<Path<?>> updatedColumns) {
+        SQLTemplates templates = this.getQueryFactory().getConfiguration().getTemplates();
+        SQLInsertClause insertClause = this.getQueryFactory().insert(this.getEntity());
+        insertClause.addListener(statementListener);
+        for (StoreValues row : rows) {
+            row.applyTo(insertClause);
+            insertClause.addBatch();
+        }
+        String conflictTarget = templates.quoteIdentifier(this.getEntity().getMetadata(idPath).getName());
+        if (updatedColumns.isEmpty()) {
+            insertClause.addFlag(QueryFlag.Position.END, "\nON CONFLICT (" + conflictTarget + ") DO NOTHING");
+        } else {
+            String assignments = updatedColumns.stream()
+                    .map(column -> templates.quoteIdentifier(this.getEntity().getMetadata(column).getName()))
+                    .map(column -> column + " = EXCLUDED." + column)
+                    .collect(Collectors.joining(", "));
+            insertClause.addFlag(QueryFlag.Position.END, "\nON CONFLICT (" + conflictTarget + ") DO UPDATE SET " + assignments);
+        }
+        return insertClause.execute();
+    }
+
+    private long merge(List<StoreValues> rows, Path<?> idPath) {
+        SQLMergeClause mergeClause = this.getQueryFactory().merge(this.getEntity()).keys(idPath);
+        mergeClause.addListener(statementListener);
+        for (StoreValues row : rows) {
+            row.applyTo(mergeClause);
+            mergeClause.addBatch();
+        }
+        return mergeClause.execute();
+    }
+
     protected void update(I identifier, Consumer<SQLUpdateClause> onUpdate, U user) {
         AssertionUtils.notNull(identifier, "Given identifier cannot be null.");
         AssertionUtils.notNull(onUpdate, "onUpdate cannot be null.");
@@ -139,6 +380,7 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
         AssertionUtils.notNull(onUpdate, "onUpdate cannot be null.");
         SQLUpdateClause updateClause = this.getQueryFactory().update(this.getEntity());
+        updateClause.addListener(statementListener);
         updateClause.where(this.getPredicate(criteria, user));
         onUpdate.accept(updateClause);
         return updateClause.execute();
@@ -150,6 +392,7 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         AssertionUtils.notNull(id, "id cannot be null.");
         AssertionUtils.notEmpty(patch, "patch cannot be empty.");
         final SQLUpdateClause updateClause = this.getQueryFactory().update(this.getEntity());
+        updateClause.addListener(statementListener);
         updateClause.where(this.getPredicate(new IdFilter<I>().setEquals(id), user));
         for (Map.Entry<String, Object> entry : patch.entrySet()) {
             Path<Object> path = (Path<Object>) this.getPath(entry.getKey());
@@ -160,6 +403,13 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
             }
         }
 
+        if (this.isUpdateReturningRow()) {
+            M patched = this.executeReturning(updateClause);
+            if (null == patched) {
+                throw new IllegalStateException("expect affect one row, but 0 row(s) updated.");
+            }
+            return patched;
+        }
         long affectedRowsCount = updateClause.execute();
         if (1 != affectedRowsCount) {
             throw new IllegalStateException("expect affect one row, but " + affectedRowsCount + " row(s) updated.");
@@ -167,6 +417,63 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         return this.get(id, user);
     }
 
+    /**
+     * override to return true for dialects with <code>UPDATE ... RETURNING</code> (e.g. PostgreSQL), then single row update and patch read updated row
+     * by the update statement itself; see {@link #toReturningSql(String, List)} for other syntax.
+     * used only if select expression is a projection of columns of entity, joined columns can't be returned.
+     */
+    protected boolean isUpdateReturningSupported() {
+        return false;
+    }
+
+    /**
+     * @param columns quoted names of columns to return
+     */
+    protected String toReturningSql(String updateSql, List<String> columns) {
+        return updateSql + "\nRETURNING " + String.join(", ", columns);
+    }
+
+    /**
+     * true if {@link #isUpdateReturningSupported()} and select expression can be read by <code>RETURNING</code>
+     */
+    @Override
+    public boolean isUpdateReturningRow() {
+        return this.isUpdateReturningSupported()
+                && this.getSelectExpression() instanceof FactoryExpression<M> projection
+                && this.getEntity().getColumns().containsAll(projection.getArgs());
+    }
+
+    /**
+     * @return updated row mapped by select expression, null if no row updated
+     */
+    protected M executeReturning(SQLUpdateClause updateClause) {
+        FactoryExpression<M> projection = (FactoryExpression<M>) this.getSelectExpression();
+        Configuration configuration = this.getQueryFactory().getConfiguration();
+        List<String> columns = projection.getArgs().stream()
+                .map(arg -> configuration.getTemplates().quoteIdentifier(this.getEntity().getMetadata((Path<?>) arg).getName()))
+                .toList();
+        SQLBindings bindings = updateClause.getSQL().get(0);
+        Connection connection = this.getQueryFactory().getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(this.toReturningSql(bindings.getSQL(), columns))) {
+            QueryDslUtils.setParameters(configuration, statement, bindings.getNullFriendlyBindings());
+            return statementListener.execute(statement, () -> {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return null;
+                    }
+                    Object[] values = new Object[projection.getArgs().size()];
+                    for (int i = 0; i < values.length; i++) {
+                        Path<?> path = (Path<?>) projection.getArgs().get(i);
+                        values[i] = configuration.get(resultSet, path, i + 1, path.getType());
+                    }
+                    return projection.newInstance(values);
+                }
+            });
+        } catch (SQLException e) {
+            throw configuration.translate(e);
+        }
+    }
+
     @Transactional
     @Override
     public long delete(I id, U user) {
@@ -178,9 +485,26 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
     @Override
     public long delete(Collection<I> ids, U user) {
         AssertionUtils.notEmpty(ids, "Given ids cannot be null.");
-        C criteria = ReflectionUtils.newInstance(criteriaClazz);
-        criteria.setIdFilter(new IdFilter<I>().setIn(ids));
-        return this.delete(criteria, user);
+        long deletedCount = 0;
+        for (List<I> chunk : ListUtils.partition(new ArrayList<>(new LinkedHashSet<>(ids)), this.getIdsPerChunk())) {
+            C criteria = ReflectionUtils.newInstance(criteriaClazz);
+            criteria.setIdFilter(new IdFilter<I>().setIn(chunk));
+            deletedCount += this.delete(criteria, user);
+        }
+        return deletedCount;
+    }
+
+    /**
+     * delete by numeric ids; ids are boxed chunk by chunk, see {@link #getIdsChunkSize()}
+     */
+    @Transactional
+    public long delete(long[] ids, U user) {
+        AssertionUtils.notNull(ids, "Given ids cannot be null.");
+        long deletedCount = 0;
+        for (int from = 0; from < ids.length; from += this.getIdsPerChunk()) {
+            deletedCount += this.delete(this.toIds(ids, from, Math.min(ids.length, from + this.getIdsPerChunk())), user);
+        }
+        return deletedCount;
     }
 
     @Transactional
@@ -188,6 +512,7 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
     public long delete(C criteria, U user) {
         AssertionUtils.notNull(criteria, "Criteria object should not be null.");
         SQLDeleteClause deleteClause = this.getQueryFactory().delete(this.getEntity());
+        deleteClause.addListener(statementListener);
         deleteClause.where(this.getPredicate(criteria.getIdFilter(), user));
         deleteClause.where(this.getPredicate(criteria, user));
         return deleteClause.execute();
@@ -195,19 +520,15 @@ public abstract class BaseRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
 
     protected <T extends StoreClause<T>> void onSaveInternal(T clause, M model, U user) {
         this.onSave(clause, model, user);
-        for (Class<?> clazz : this.getClass().getInterfaces()) {
-            if (SaveExtendedRepositoryQdslSql.class.isAssignableFrom(clazz)) {
-                ((SaveExtendedRepositoryQdslSql) this).onSave(clause, model, user);
-            }
+        for (SaveExtendedRepositoryQdslSql<M, U> extension : saveExtensions) {
+            extension.onSave(clause, model, user);
         }
     }
 
     protected <T extends StoreClause<T>> void onUpdateInternal(T clause, M model, U user) {
         this.onUpdate(clause, model, user);
-        for (Class<?> clazz : this.getClass().getInterfaces()) {
-            if (UpdateExtendedRepositoryQdslSql.class.isAssignableFrom(clazz)) {
-                ((UpdateExtendedRepositoryQdslSql) this).onUpdate(clause, model, user);
-            }
+        for (UpdateExtendedRepositoryQdslSql<M, U> extension : updateExtensions) {
+            extension.onUpdate(clause, model, user);
         }
     }
 }
@@ -0,0 +1,11 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+/**
+ * progress of a chunked bulk write, reported after each chunk is written.
+ *
+ * @param chunk   number of written chunk, starts from 1
+ * @param size    count of models in written chunk
+ * @param written count of models written so far
+ */
+public record ChunkProgress(int chunk, int size, long written) {
+}
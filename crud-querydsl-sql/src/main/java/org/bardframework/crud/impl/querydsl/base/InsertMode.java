@@ -0,0 +1,16 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+/**
+ * how a collection of models is sent to database on save.
+ */
+public enum InsertMode {
+    /**
+     * one jdbc batch of single row inserts; some drivers execute it row by row.
+     */
+    BATCH,
+    /**
+     * multi row <code>INSERT ... VALUES (...), (...)</code> statements, each bound up to parameter budget of repository;
+     * rows which set different columns (e.g. optional columns left to defaults) are inserted by separate statements.
+     */
+    MULTI_ROW
+}
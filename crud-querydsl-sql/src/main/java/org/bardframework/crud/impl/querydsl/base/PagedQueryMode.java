@@ -0,0 +1,24 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+/**
+ * how total count of paged read is fetched beside the page data.
+ */
+public enum PagedQueryMode {
+    /**
+     * one count query, then one page query.
+     */
+    SEPARATE,
+    /**
+     * one query, total is read from <code>count(*) over()</code> window column of first row.
+     */
+    WINDOW,
+    /**
+     * one query, total is read from scalar count sub query column; for databases without window functions.
+     */
+    SUB_QUERY,
+    /**
+     * count and page queries run concurrently, each on its own connection, see {@link ReadRepositoryQdslSqlAbstract#getReadExecutor()};
+     * runs as {@link #SEPARATE} inside an outer read-write transaction or if no executor is provided.
+     */
+    CONCURRENT
+}
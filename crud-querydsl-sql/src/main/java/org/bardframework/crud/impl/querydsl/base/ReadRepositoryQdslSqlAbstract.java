@@ -1,22 +1,34 @@
 package org.bardframework.crud.impl.querydsl.base;
 
-import com.querydsl.core.types.Expression;
-import com.querydsl.core.types.OrderSpecifier;
-import com.querydsl.core.types.Path;
-import com.querydsl.core.types.Predicate;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.sql.ColumnMetadata;
 import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.SQLExpressions;
 import com.querydsl.sql.SQLQuery;
 import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.StatementOptions;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.bardframework.commons.utils.AssertionUtils;
 import org.bardframework.commons.utils.ReflectionUtils;
 import org.bardframework.crud.api.base.BaseCriteria;
 import org.bardframework.crud.api.base.BaseModel;
 import org.bardframework.crud.api.base.PagedData;
 import org.bardframework.crud.api.base.ReadRepository;
+import org.bardframework.crud.api.base.SlicedData;
 import org.bardframework.crud.exception.InvalidFieldException;
+import org.bardframework.crud.impl.querydsl.count.CountStrategy;
+import org.bardframework.crud.impl.querydsl.count.ExactCountStrategy;
+import org.bardframework.crud.impl.querydsl.count.TotalCount;
+import org.bardframework.crud.impl.querydsl.listener.StatementControlListener;
+import org.bardframework.crud.impl.querydsl.utils.CursorUtils;
 import org.bardframework.crud.impl.querydsl.utils.QueryDslUtils;
 import org.bardframework.form.model.filter.IdFilter;
 import org.slf4j.Logger;
@@ -24,14 +36,23 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Created by vahid on 1/17/17.
@@ -43,6 +64,23 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
     protected final Class<C> criteriaClazz;
     protected final Class<I> idClazz;
     protected final Map<String, Path<?>> columns;
+    /**
+     * resolved once, on construction; extension interfaces implemented by this repository (including through super classes) plus added ones.
+     */
+    private ReadExtendedRepositoryQdslSql<C, I, U>[] readExtensions;
+    /**
+     * least recently used projections are evicted, see {@link #getFieldsProjectionCacheSize()}
+     */
+    private final Map<List<String>, Object> fieldsProjections = Collections.synchronizedMap(new LinkedHashMap<List<String>, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<String>, Object> eldest) {
+            return this.size() > ReadRepositoryQdslSqlAbstract.this.getFieldsProjectionCacheSize();
+        }
+    });
+    /**
+     * added to each query and clause of this repository, see {@link #getQueryTimeout()}
+     */
+    protected final StatementControlListener statementListener = new StatementControlListener(this::getQueryTimeout);
 
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
@@ -52,6 +90,18 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         this.criteriaClazz = ReflectionUtils.getGenericArgType(this.getClass(), 1);
         this.idClazz = ReflectionUtils.getGenericArgType(this.getClass(), 2);
         this.columns = this.getEntity().getColumns().stream().collect(Collectors.toMap(path -> path.getMetadata().getName(), Function.identity()));
+        this.readExtensions = this instanceof ReadExtendedRepositoryQdslSql ? new ReadExtendedRepositoryQdslSql[]{(ReadExtendedRepositoryQdslSql<C, I, U>) this} : new ReadExtendedRepositoryQdslSql[0];
+    }
+
+    /**
+     * add a custom extension to pipeline of this repository, call in constructor of sub classes.
+     * extension interfaces implemented by repository itself are added automatically.
+     */
+    protected void addExtension(Object extension) {
+        AssertionUtils.notNull(extension, "Given extension cannot be null.");
+        if (extension instanceof ReadExtendedRepositoryQdslSql) {
+            this.readExtensions = ArrayUtils.add(this.readExtensions, (ReadExtendedRepositoryQdslSql<C, I, U>) extension);
+        }
     }
 
     protected abstract Predicate getPredicate(C criteria, U user);
@@ -82,27 +132,250 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
     @Override
     public List<M> get(Collection<I> ids, U user) {
         AssertionUtils.notEmpty(ids, "Given ids cannot be empty.");
+        List<I> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() <= this.getIdsPerChunk()) {
+            return this.getChunk(distinctIds, user);
+        }
+        List<List<I>> chunks = ListUtils.partition(distinctIds, this.getIdsPerChunk());
+        List<M> result = new ArrayList<>(distinctIds.size());
+        if (!this.canReadInParallel()) {
+            for (List<I> chunk : chunks) {
+                result.addAll(this.getChunk(chunk, user));
+            }
+            return result;
+        }
+        Executor executor = this.getReadExecutor();
+        TransactionOperations transactionOperations = this.getReadTransactionOperations();
+        List<CompletableFuture<List<M>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(StatementControlListener.propagate(() -> transactionOperations.execute(status -> this.getChunk(chunk, user))), executor))
+                .toList();
+        for (CompletableFuture<List<M>> future : futures) {
+            result.addAll(join(future));
+        }
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<M> getOrdered(Collection<I> ids, U user) {
+        Map<I, M> models = new HashMap<>();
+        for (M model : this.get(ids, user)) {
+            models.put(model.getId(), model);
+        }
+        List<M> result = new ArrayList<>(models.size());
+        for (I id : new LinkedHashSet<>(ids)) {
+            M model = models.get(id);
+            if (null != model) {
+                result.add(model);
+            }
+        }
+        return result;
+    }
+
+    protected List<M> getChunk(Collection<I> ids, U user) {
         C criteria = ReflectionUtils.newInstance(criteriaClazz);
         criteria.setIdFilter(new IdFilter<I>().setIn(ids));
         return this.get(criteria, user);
     }
 
+    /**
+     * maximum count of ids bound in one query, larger id collections are read, checked and deleted in chunks;
+     * ids of a query are padded by {@link QueryDslUtils#padInValues(Collection)}, chunks are sized so padded list is not larger than this.
+     * keep it below bind parameter limit of driver minus other parameters of query, e.g. 2,100 on SQL Server and 32,767 on PostgreSQL.
+     */
+    protected int getIdsChunkSize() {
+        return 1024;
+    }
+
+    /**
+     * count of ids of each chunk, see {@link #getIdsChunkSize()}
+     */
+    int getIdsPerChunk() {
+        return QueryDslUtils.getUnpaddedLimit(this.getIdsChunkSize());
+    }
+
+    /**
+     * executor of parallel reads (chunks of ids, total count in {@link PagedQueryMode#CONCURRENT}), e.g. a virtual thread per task executor;
+     * null (default) to read sequentially. used only if {@link #getReadTransactionOperations()} is provided too.
+     */
+    protected Executor getReadExecutor() {
+        return null;
+    }
+
+    /**
+     * transaction of each parallel read, e.g. read only {@link org.springframework.transaction.support.TransactionTemplate} with <code>PROPAGATION_REQUIRES_NEW</code>;
+     * each parallel read runs on its own connection, so changes not committed by caller transaction are not visible to it.
+     */
+    protected TransactionOperations getReadTransactionOperations() {
+        return null;
+    }
+
+    /**
+     * parallel reads are not used inside an outer read-write transaction, they can't see its uncommitted changes.
+     */
+    private boolean canReadInParallel() {
+        return null != this.getReadExecutor() && null != this.getReadTransactionOperations()
+                && !(TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public PagedData<M> get(C criteria, Pageable pageable, U user) {
         AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
         AssertionUtils.notNull(pageable, "Given pageable cannot be null.");
+        CountStrategy countStrategy = this.getCountStrategy(criteria, user);
+        PagedQueryMode mode = this.getPagedQueryMode();
+        if (countStrategy instanceof ExactCountStrategy && (PagedQueryMode.WINDOW == mode || PagedQueryMode.SUB_QUERY == mode)) {
+            return this.getInSingleQuery(criteria, pageable, user);
+        }
+        if (PagedQueryMode.CONCURRENT == mode && this.canReadInParallel()) {
+            return this.getConcurrently(criteria, pageable, countStrategy, user);
+        }
         SQLQuery<?> query = this.prepareSelectQuery(criteria, user);
-        long total = query.fetchCount();
-        if (0 >= total) {
+        TotalCount total = countStrategy.count(query, this.getQueryFactory(), statementListener);
+        if (total.exact() && 0 >= total.value()) {
             return new PagedData<>();
         }
+        List<M> result = this.getPage(query.clone(this.getQueryFactory().getConnection()), pageable);
+        return new PagedData<>(result, total.value(), total.exact(), null);
+    }
+
+    /**
+     * total is counted on {@link #getReadExecutor()} in its own transaction, while page is fetched in current one;
+     * query timeout and cancellation scope of caller apply to count too.
+     */
+    protected PagedData<M> getConcurrently(C criteria, Pageable pageable, CountStrategy countStrategy, U user) {
+        TransactionOperations transactionOperations = this.getReadTransactionOperations();
+        CompletableFuture<TotalCount> totalFuture = CompletableFuture.supplyAsync(StatementControlListener.propagate(() -> transactionOperations.execute(status -> countStrategy.count(this.prepareSelectQuery(criteria, user), this.getQueryFactory(), statementListener))), this.getReadExecutor());
+        List<M> result = this.getPage(this.prepareSelectQuery(criteria, user), pageable);
+        TotalCount total = join(totalFuture);
+        return new PagedData<>(result, total.value(), total.exact(), null);
+    }
+
+    private List<M> getPage(SQLQuery<?> query, Pageable pageable) {
         this.setOrders(query, pageable.getSort());
-        query = query.clone(this.getQueryFactory().getConnection());
         query.offset((long) (pageable.getPageNumber() - 1) * pageable.getPageSize());
         query.limit(pageable.getPageSize());
+        return query.select(this.getSelectExpression()).fetch();
+    }
+
+    /**
+     * strategy of calculating total of paged read, override to choose per repository or per criteria and user.
+     */
+    protected CountStrategy getCountStrategy(C criteria, U user) {
+        return ExactCountStrategy.INSTANCE;
+    }
+
+    /**
+     * fetch page and total in one round trip, total read from extra column of first row.
+     */
+    protected PagedData<M> getInSingleQuery(C criteria, Pageable pageable, U user) {
+        Expression<Long> totalExpression;
+        if (PagedQueryMode.WINDOW == this.getPagedQueryMode()) {
+            totalExpression = SQLExpressions.countAll.over();
+        } else {
+            totalExpression = this.prepareSelectQuery(criteria, user).select(Wildcard.count);
+        }
+        SQLQuery<?> query = this.prepareSelectQuery(criteria, user);
+        this.setOrders(query, pageable.getSort());
+        long offset = (long) (pageable.getPageNumber() - 1) * pageable.getPageSize();
+        query.offset(offset);
+        query.limit(pageable.getPageSize());
+        List<Tuple> tuples = query.select(this.getSelectExpression(), totalExpression).fetch();
+        if (tuples.isEmpty()) {
+            /*
+                no row means no data or page out of range; in second case total can't be read from rows.
+             */
+            return 0 == offset ? new PagedData<>() : new PagedData<>(List.of(), this.getCount(criteria, user));
+        }
+        List<M> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            result.add(tuple.get(0, modelClazz));
+        }
+        Long total = tuples.get(0).get(1, Long.class);
+        return new PagedData<>(result, null == total ? 0 : total);
+    }
+
+    /**
+     * override to fetch paged data and its total in one query, see {@link PagedQueryMode}
+     */
+    protected PagedQueryMode getPagedQueryMode() {
+        return PagedQueryMode.SEPARATE;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PagedData<M> get(C criteria, Pageable pageable, String after, U user) {
+        AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
+        AssertionUtils.notNull(pageable, "Given pageable cannot be null.");
+        SQLQuery<?> query = this.prepareSelectQuery(criteria, user);
+        /*
+            total is counted on first page only; next pages are read by cursor and don't repeat the count.
+         */
+        TotalCount total = TotalCount.UNKNOWN;
+        if (StringUtils.isEmpty(after)) {
+            total = this.getCountStrategy(criteria, user).count(query, this.getQueryFactory(), statementListener);
+            if (total.exact() && 0 >= total.value()) {
+                return new PagedData<>();
+            }
+        }
+        List<OrderSpecifier<?>> orders = this.getKeysetOrders(pageable.getSort());
+        query = query.clone(this.getQueryFactory().getConnection());
+        if (StringUtils.isNotEmpty(after)) {
+            List<Class<?>> types = orders.stream().<Class<?>>map(order -> order.getTarget().getType()).toList();
+            query.where(this.getKeysetPredicate(orders, CursorUtils.decode(after, types)));
+        }
+        query.orderBy(orders.toArray(OrderSpecifier[]::new));
+        /*
+            fetch one more row to find out next page exist or not.
+         */
+        query.limit(pageable.getPageSize() + 1L);
+        Expression<?>[] selects = new Expression[orders.size() + 1];
+        selects[0] = this.getSelectExpression();
+        for (int i = 0; i < orders.size(); i++) {
+            selects[i + 1] = orders.get(i).getTarget();
+        }
+        List<Tuple> tuples = query.select(selects).fetch();
+        boolean hasNext = tuples.size() > pageable.getPageSize();
+        if (hasNext) {
+            tuples = tuples.subList(0, pageable.getPageSize());
+        }
+        List<M> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            result.add(tuple.get(0, modelClazz));
+        }
+        String next = null;
+        if (hasNext) {
+            Tuple last = tuples.get(tuples.size() - 1);
+            List<Object> values = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                values.add(last.get(i + 1, Object.class));
+            }
+            next = CursorUtils.encode(values);
+        }
+        return new PagedData<>(result, total.value(), total.exact(), next);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public SlicedData<M> getSlice(C criteria, Pageable pageable, U user) {
+        AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
+        AssertionUtils.notNull(pageable, "Given pageable cannot be null.");
+        SQLQuery<?> query = this.prepareSelectQuery(criteria, user);
+        this.setOrders(query, pageable.getSort());
+        query.offset((long) (pageable.getPageNumber() - 1) * pageable.getPageSize());
+        query.limit(pageable.getPageSize() + 1L);
         List<M> result = query.select(this.getSelectExpression()).fetch();
-        return new PagedData<>(result, total);
+        boolean hasNext = result.size() > pageable.getPageSize();
+        return new SlicedData<>(hasNext ? result.subList(0, pageable.getPageSize()) : result, hasNext);
     }
 
     @Transactional(readOnly = true)
@@ -139,16 +412,64 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         return this.prepareSelectQuery(criteria, user).fetchCount();
     }
 
+    /**
+     * rows are read through a jdbc cursor with {@link #getStreamFetchSize()} fetch size and mapped lazily;
+     * closing the stream closes the underlying result set, so it is safe to stop early.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    @Override
+    public Stream<M> stream(C criteria, Sort sort, U user) {
+        AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
+        SQLQuery<M> query = this.prepareSelectQuery(criteria, user).select(this.getSelectExpression());
+        this.setOrders(query, sort);
+        query.setStatementOptions(StatementOptions.builder().setFetchSize(this.getStreamFetchSize()).build());
+        return query.stream();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEach(C criteria, Sort sort, Consumer<M> action, U user) {
+        AssertionUtils.notNull(action, "Given action cannot be null.");
+        try (Stream<M> stream = this.stream(criteria, sort, user)) {
+            stream.forEach(action);
+        }
+    }
+
+    /**
+     * rows fetched from database in each round trip of {@link #stream(BaseCriteria, Sort, Object)}.
+     * PostgreSQL only uses cursor inside transaction with positive fetch size; MySQL needs {@link Integer#MIN_VALUE} to stream.
+     */
+    protected int getStreamFetchSize() {
+        return 1000;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public boolean isExist(C criteria, U user) {
-        return this.getCount(criteria, user) > 0;
+        AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
+        /*
+            select 1 ... limit 1, stops at first match instead of counting all matches.
+         */
+        return null != this.prepareSelectQuery(criteria, user).select(Expressions.ONE).fetchFirst();
     }
 
     @Transactional(readOnly = true)
     @Override
     public boolean isNotExist(C criteria, U user) {
-        return this.getCount(criteria, user) == 0;
+        return !this.isExist(criteria, user);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Set<I> existingIds(Collection<I> ids, U user) {
+        AssertionUtils.notEmpty(ids, "Given ids cannot be empty.");
+        Set<I> existingIds = new HashSet<>();
+        for (List<I> chunk : ListUtils.partition(new ArrayList<>(new LinkedHashSet<>(ids)), this.getIdsPerChunk())) {
+            C criteria = ReflectionUtils.newInstance(criteriaClazz);
+            criteria.setIdFilter(new IdFilter<I>().setIn(chunk));
+            existingIds.addAll(this.prepareSelectQuery(criteria, user).select(this.getIdSelectExpression()).distinct().fetch());
+        }
+        return existingIds;
     }
 
     @Transactional(readOnly = true)
@@ -158,6 +479,80 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         return this.prepareSelectQuery(criteria, user).select(this.getIdSelectExpression()).fetch();
     }
 
+    /**
+     * ids of numeric (long, integer, short) identifiers without boxing; read straight from result set with {@link #getStreamFetchSize()} fetch size.
+     */
+    @Transactional(readOnly = true)
+    public long[] getIdsAsLongArray(C criteria, U user) {
+        long[][] ids = {new long[1024]};
+        int[] size = {0};
+        this.forEachId(criteria, id -> {
+            if (size[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], ids[0].length * 2);
+            }
+            ids[0][size[0]++] = id;
+        }, user);
+        return Arrays.copyOf(ids[0], size[0]);
+    }
+
+    /**
+     * pass numeric ids to given action one by one without boxing and without holding them in memory.
+     */
+    @Transactional(readOnly = true)
+    public void forEachId(C criteria, LongConsumer action, U user) {
+        AssertionUtils.notNull(criteria, "Given criteria cannot be null.");
+        AssertionUtils.notNull(action, "Given action cannot be null.");
+        this.assertNumericId();
+        SQLQuery<I> query = this.prepareSelectQuery(criteria, user).select(this.getIdSelectExpression());
+        query.setStatementOptions(StatementOptions.builder().setFetchSize(this.getStreamFetchSize()).build());
+        try (ResultSet resultSet = query.getResults()) {
+            while (resultSet.next()) {
+                action.accept(resultSet.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw this.getQueryFactory().getConfiguration().translate(e);
+        }
+    }
+
+    /**
+     * get by numeric ids; ids are boxed chunk by chunk, see {@link #getIdsChunkSize()}
+     */
+    @Transactional(readOnly = true)
+    public List<M> get(long[] ids, U user) {
+        AssertionUtils.notNull(ids, "Given ids cannot be null.");
+        List<M> result = new ArrayList<>();
+        for (int from = 0; from < ids.length; from += this.getIdsPerChunk()) {
+            result.addAll(this.get(this.toIds(ids, from, Math.min(ids.length, from + this.getIdsPerChunk())), user));
+        }
+        return result;
+    }
+
+    protected List<I> toIds(long[] ids, int from, int to) {
+        this.assertNumericId();
+        List<I> list = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Object id;
+            if (Long.class == idClazz) {
+                id = ids[i];
+            } else if (Integer.class == idClazz) {
+                id = Math.toIntExact(ids[i]);
+            } else {
+                if (ids[i] < Short.MIN_VALUE || ids[i] > Short.MAX_VALUE) {
+                    throw new ArithmeticException("short overflow, id [%d] is out of range".formatted(ids[i]));
+                }
+                id = (short) ids[i];
+            }
+            list.add(idClazz.cast(id));
+        }
+        return list;
+    }
+
+    private void assertNumericId() {
+        if (Long.class != idClazz && Integer.class != idClazz && Short.class != idClazz) {
+            throw new IllegalStateException("identifier type [%s] is not numeric, can't read it as long.".formatted(idClazz));
+        }
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<M> get(C criteria, U user) {
@@ -198,31 +593,82 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
                 query.limit(pageable.getPageSize());
             }
         }
-        Expression<M> selectExpression;
-        if (CollectionUtils.isNotEmpty(fields)) {
-            Expression<?>[] expressions = new Expression[fields.size()];
-            for (int i = 0; i < fields.size(); i++) {
-                Path<?> path = this.getPath(fields.get(i));
-                if (null == path) {
-                    throw new InvalidFieldException(fields.get(i));
-                }
-                expressions[i] = path;
+        Expression<M> selectExpression = CollectionUtils.isNotEmpty(fields) ? this.getSelectExpression(fields) : this.getSelectExpression();
+        return query.select(selectExpression).fetch();
+    }
+
+    /**
+     * projection of given fields, cached by field list; invalid field lists are cached too, and rejected without resolving again.
+     *
+     * @throws InvalidFieldException if any of fields is not valid
+     */
+    protected Expression<M> getSelectExpression(List<String> fields) {
+        Object projection = fieldsProjections.get(fields);
+        if (null == projection) {
+            projection = this.createSelectExpression(fields);
+            fieldsProjections.put(Collections.unmodifiableList(new ArrayList<>(fields)), projection);
+        }
+        if (projection instanceof InvalidField invalidField) {
+            throw new InvalidFieldException(invalidField.name());
+        }
+        return (Expression<M>) projection;
+    }
+
+    /**
+     * @return projection, or {@link InvalidField} if any of fields is not valid.
+     */
+    private Object createSelectExpression(List<String> fields) {
+        /*
+            contains(null) throws on immutable lists, e.g. List.of
+         */
+        for (String field : fields) {
+            if (null == field) {
+                return new InvalidField(null);
             }
-            selectExpression = QueryDslUtils.bean(modelClazz, expressions);
-        } else {
-            selectExpression = this.getSelectExpression();
         }
-        return query.select(selectExpression).fetch();
+        /*
+            same set of fields in other order or with duplicates has same projection.
+         */
+        List<String> canonicalFields = fields.stream().distinct().sorted().toList();
+        Object projection = fieldsProjections.get(canonicalFields);
+        if (null != projection) {
+            return projection;
+        }
+        Expression<?>[] expressions = new Expression[canonicalFields.size()];
+        for (int i = 0; i < canonicalFields.size(); i++) {
+            Path<?> path = this.getPath(canonicalFields.get(i));
+            if (null == path) {
+                return new InvalidField(canonicalFields.get(i));
+            }
+            expressions[i] = path;
+        }
+        projection = QueryDslUtils.setterBean(modelClazz, expressions);
+        fieldsProjections.put(canonicalFields, projection);
+        return projection;
+    }
+
+    /**
+     * maximum count of cached field list projections; least recently used one is evicted when full.
+     */
+    protected int getFieldsProjectionCacheSize() {
+        return 256;
+    }
+
+    /**
+     * timeout of statements of this repository, null (default) for no timeout; override per call with {@link org.bardframework.crud.impl.querydsl.listener.QueryTimeout}.
+     * running statements are cancelled if {@link org.bardframework.crud.api.cancellation.CancellationScope} of caller is cancelled.
+     */
+    protected Duration getQueryTimeout() {
+        return null;
     }
 
     protected SQLQuery<?> prepareSelectQuery(C criteria, U user) {
         SQLQuery<?> query = this.getQueryFactory().query().from(this.getEntity());
+        query.addListener(statementListener);
         query.where(this.getPredicate(criteria.getIdFilter(), user));
         query.where(this.getPredicate(criteria, user));
-        for (Class<?> clazz : this.getClass().getInterfaces()) {
-            if (ReadExtendedRepositoryQdslSql.class.isAssignableFrom(clazz)) {
-                ((ReadExtendedRepositoryQdslSql<C, I, U>) this).process(criteria, query, user);
-            }
+        for (ReadExtendedRepositoryQdslSql<C, I, U> extension : readExtensions) {
+            extension.process(criteria, query, user);
         }
         this.setSelectJoins(query, criteria, user);
         return query;
@@ -241,6 +687,84 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
         return null;
     }
 
+    /**
+     * orders of given sort followed by identifier as tie-breaker, so each row has a unique position in keyset pagination.
+     * identifier ordered same as last given order; nullable columns are ordered <code>NULLS LAST</code> in both directions,
+     * so position of nulls doesn't depend on default null ordering of database.
+     */
+    protected List<OrderSpecifier<?>> getKeysetOrders(@Nullable Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        if (null != sort) {
+            sort.stream().map(this::toOrderSpecifier).filter(Objects::nonNull)
+                    .map(order -> this.isNullable(order.getTarget()) ? order.nullsLast() : order)
+                    .forEach(orders::add);
+        }
+        Expression<I> idExpression = this.getIdSelectExpression();
+        if (orders.stream().noneMatch(order -> order.getTarget().equals(idExpression))) {
+            Order direction = orders.isEmpty() ? Order.ASC : orders.get(orders.size() - 1).getOrder();
+            orders.add(new OrderSpecifier(direction, idExpression));
+        }
+        return orders;
+    }
+
+    /**
+     * seek predicate to fetch rows positioned after given values in given orders.
+     * if all orders have same direction, none of them is nullable and {@link #isRowValueComparisonSupported()}, row value comparison <code>(a, b) &gt; (?, ?)</code> is used,
+     * expanded <code>a &gt; ? or (a = ? and b &gt; ?)</code> form otherwise; nulls are positioned after all values, see {@link #getKeysetOrders(Sort)}.
+     */
+    protected Predicate getKeysetPredicate(List<OrderSpecifier<?>> orders, List<Object> values) {
+        boolean sameDirection = orders.stream().map(OrderSpecifier::getOrder).distinct().count() == 1;
+        boolean nullable = orders.stream().anyMatch(order -> OrderSpecifier.NullHandling.NullsLast == order.getNullHandling()) || values.stream().anyMatch(Objects::isNull);
+        if (sameDirection && !nullable && orders.size() > 1 && this.isRowValueComparisonSupported()) {
+            Expression<?>[] targets = orders.stream().map(OrderSpecifier::getTarget).toArray(Expression[]::new);
+            Expression<?>[] constants = values.stream().map(Expressions::constant).toArray(Expression[]::new);
+            String operator = orders.get(0).isAscending() ? ">" : "<";
+            return Expressions.booleanTemplate("({0}) " + operator + " ({1})", Expressions.list(targets), Expressions.list(constants));
+        }
+        BooleanBuilder seek = new BooleanBuilder();
+        BooleanBuilder equals = new BooleanBuilder();
+        for (int i = 0; i < orders.size(); i++) {
+            OrderSpecifier<?> order = orders.get(i);
+            Expression<?> target = order.getTarget();
+            Object value = values.get(i);
+            if (null == value) {
+                /*
+                    nulls are last, no row is after a null in this order; rows with null are tied.
+                 */
+                equals.and(Expressions.predicate(Ops.IS_NULL, target));
+                continue;
+            }
+            BooleanBuilder after = new BooleanBuilder(Expressions.predicate(order.isAscending() ? Ops.GT : Ops.LT, target, Expressions.constant(value)));
+            if (OrderSpecifier.NullHandling.NullsLast == order.getNullHandling()) {
+                after.or(Expressions.predicate(Ops.IS_NULL, target));
+            }
+            seek.or(new BooleanBuilder().and(equals.getValue()).and(after));
+            equals.and(Expressions.predicate(Ops.EQ, target, Expressions.constant(value)));
+        }
+        return seek;
+    }
+
+    /**
+     * true if given sort target of keyset pagination may be null; identifier and columns of entity declared not null are not nullable.
+     */
+    protected boolean isNullable(Expression<?> target) {
+        if (target.equals(this.getIdSelectExpression())) {
+            return false;
+        }
+        if (!(target instanceof Path<?> path) || !this.getEntity().equals(path.getMetadata().getParent())) {
+            return true;
+        }
+        ColumnMetadata metadata = this.getEntity().getMetadata(path);
+        return null == metadata || metadata.isNullable();
+    }
+
+    /**
+     * override and return false if database not support row value comparison like <code>(a, b) &gt; (?, ?)</code>
+     */
+    protected boolean isRowValueComparisonSupported() {
+        return true;
+    }
+
     protected Path<?> getPath(String columnName) {
         return columns.get(columnName);
     }
@@ -258,4 +782,7 @@ public abstract class ReadRepositoryQdslSqlAbstract<M extends BaseModel<I>, C ex
     protected SQLQueryFactory getQueryFactory() {
         return queryFactory;
     }
+
+    private record InvalidField(String name) {
+    }
 }
@@ -0,0 +1,73 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+import com.querydsl.core.dml.StoreClause;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * values of one row collected from save and update hooks, each column once; a column set again replaces its previous value.
+ * not executable, values are applied to a real clause by {@link #applyTo(StoreClause)}.
+ */
+final class StoreValues implements StoreClause<StoreValues> {
+
+    /**
+     * value is a constant, an {@link Expression}, or null for <code>setNull</code>
+     */
+    private final Map<Path<?>, Object> values = new LinkedHashMap<>();
+
+    @Override
+    public <T> StoreValues set(Path<T> path, T value) {
+        values.put(path, value);
+        return this;
+    }
+
+    @Override
+    public <T> StoreValues set(Path<T> path, Expression<? extends T> expression) {
+        values.put(path, expression);
+        return this;
+    }
+
+    @Override
+    public <T> StoreValues setNull(Path<T> path) {
+        values.put(path, null);
+        return this;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    @Override
+    public long execute() {
+        throw new UnsupportedOperationException("values are not executable, apply them to a clause.");
+    }
+
+    void putAll(StoreValues other) {
+        values.putAll(other.values);
+    }
+
+    Set<Path<?>> getPaths() {
+        return values.keySet();
+    }
+
+    <C extends StoreClause<C>> void applyTo(C clause) {
+        for (Map.Entry<Path<?>, Object> entry : values.entrySet()) {
+            StoreValues.apply(clause, (Path<Object>) entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static <C extends StoreClause<C>, T> void apply(C clause, Path<T> path, Object value) {
+        if (null == value) {
+            clause.setNull(path);
+        } else if (value instanceof Expression<?> expression) {
+            clause.set(path, (Expression<? extends T>) expression);
+        } else {
+            clause.set(path, (T) value);
+        }
+    }
+}
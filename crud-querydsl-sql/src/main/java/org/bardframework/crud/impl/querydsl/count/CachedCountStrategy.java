@@ -0,0 +1,74 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.bardframework.crud.impl.querydsl.listener.StatementControlListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * cache result of another strategy (exact by default) for a ttl.
+ * cache key is the sql and bindings of query, so criteria and user restrictions that produce the same query share a count.
+ */
+public class CachedCountStrategy implements CountStrategy {
+
+    private final CountStrategy delegate;
+    private final long ttlNanos;
+    private final Map<List<Object>, Entry> cache;
+
+    public CachedCountStrategy(Duration ttl, int maxSize) {
+        this(ExactCountStrategy.INSTANCE, ttl, maxSize);
+    }
+
+    public CachedCountStrategy(CountStrategy delegate, Duration ttl, int maxSize) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public TotalCount count(SQLQuery<?> query, SQLQueryFactory queryFactory, StatementControlListener listener) {
+        List<Object> key = this.getKey(query.getSQL());
+        long now = System.nanoTime();
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (null != entry && now - entry.time() < ttlNanos) {
+                /*
+                    data may be changed after caching, so cached count is not guaranteed to be exact.
+                 */
+                return TotalCount.approximate(entry.count().value());
+            }
+        }
+        TotalCount count = delegate.count(query, queryFactory, listener);
+        synchronized (cache) {
+            cache.put(key, new Entry(count, now));
+        }
+        return count;
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    protected List<Object> getKey(SQLBindings bindings) {
+        List<Object> key = new ArrayList<>(bindings.getNullFriendlyBindings().size() + 1);
+        key.add(bindings.getSQL());
+        key.addAll(bindings.getNullFriendlyBindings());
+        return key;
+    }
+
+    private record Entry(TotalCount count, long time) {
+    }
+}
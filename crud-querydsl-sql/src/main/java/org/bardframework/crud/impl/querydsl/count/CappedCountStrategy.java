@@ -0,0 +1,39 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+import com.querydsl.core.types.Wildcard;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.bardframework.crud.impl.querydsl.listener.StatementControlListener;
+
+/**
+ * count at most <code>cap</code> records, e.g. "10,000+";
+ * <code>select count(*) from (select 1 from ... limit cap + 1)</code> stops scanning after cap + 1 matches.
+ */
+public class CappedCountStrategy implements CountStrategy {
+
+    private final long cap;
+
+    public CappedCountStrategy(long cap) {
+        if (cap <= 0) {
+            throw new IllegalArgumentException("cap must be positive, but is " + cap);
+        }
+        this.cap = cap;
+    }
+
+    @Override
+    public TotalCount count(SQLQuery<?> query, SQLQueryFactory queryFactory, StatementControlListener listener) {
+        SQLQuery<Integer> limited = query.clone().select(Expressions.ONE).limit(cap + 1);
+        SQLQuery<Long> cappedQuery = queryFactory.select(Wildcard.count).from(limited, Expressions.path(Object.class, "capped"));
+        cappedQuery.addListener(listener);
+        Long count = cappedQuery.fetchOne();
+        if (null == count) {
+            return TotalCount.exact(0);
+        }
+        return count > cap ? TotalCount.approximate(cap) : TotalCount.exact(count);
+    }
+
+    public long getCap() {
+        return cap;
+    }
+}
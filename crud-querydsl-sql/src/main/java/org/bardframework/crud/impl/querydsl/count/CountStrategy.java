@@ -0,0 +1,17 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.bardframework.crud.impl.querydsl.listener.StatementControlListener;
+
+/**
+ * calculate total count of paged read.
+ */
+public interface CountStrategy {
+
+    /**
+     * @param query    prepared select query of criteria without order and paging, must not be changed.
+     * @param listener statement control of repository, apply it to other queries and statements run by strategy.
+     */
+    TotalCount count(SQLQuery<?> query, SQLQueryFactory queryFactory, StatementControlListener listener);
+}
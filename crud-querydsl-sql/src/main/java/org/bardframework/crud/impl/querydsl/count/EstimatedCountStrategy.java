@@ -0,0 +1,118 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.bardframework.crud.impl.querydsl.listener.StatementControlListener;
+import org.bardframework.crud.impl.querydsl.utils.QueryDslUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * row estimate of database planner, read from <code>EXPLAIN</code> output of query.
+ * default prefix and pattern match PostgreSQL text plan (<code>... rows=1234 ...</code> of top node);
+ * estimates below <code>exactThreshold</code> are not reliable and cheap to count, so they are counted exactly.
+ * on any error in reading plan, falls back to exact count.
+ */
+@Slf4j
+public class EstimatedCountStrategy implements CountStrategy {
+
+    private final String explainPrefix;
+    private final Pattern rowsPattern;
+    private final long exactThreshold;
+
+    public EstimatedCountStrategy(long exactThreshold) {
+        this("EXPLAIN ", Pattern.compile("rows=(\\d+)"), exactThreshold);
+    }
+
+    /**
+     * @param rowsPattern pattern that its first group is estimated rows, applied on plan lines in order.
+     */
+    public EstimatedCountStrategy(String explainPrefix, Pattern rowsPattern, long exactThreshold) {
+        this.explainPrefix = explainPrefix;
+        this.rowsPattern = rowsPattern;
+        this.exactThreshold = exactThreshold;
+    }
+
+    @Override
+    public TotalCount count(SQLQuery<?> query, SQLQueryFactory queryFactory, StatementControlListener listener) {
+        /*
+            query has no projection yet, it's rendered without select clause.
+         */
+        SQLBindings bindings = query.clone().select(Expressions.ONE).getSQL();
+        Long estimate = this.estimate(bindings, queryFactory.getConnection(), queryFactory.getConfiguration(), listener);
+        if (null == estimate) {
+            log.warn("can't estimate count of query [{}], exact count used.", bindings.getSQL());
+            return ExactCountStrategy.INSTANCE.count(query, queryFactory, listener);
+        }
+        if (estimate < exactThreshold) {
+            log.debug("estimated count '{}' is below '{}', exact count used.", estimate, exactThreshold);
+            return ExactCountStrategy.INSTANCE.count(query, queryFactory, listener);
+        }
+        return TotalCount.approximate(estimate);
+    }
+
+    /**
+     * plan is read under a savepoint if connection is in a transaction, as a failed statement aborts transaction on some databases (e.g. PostgreSQL)
+     * and exact count of fallback could not run.
+     *
+     * @return estimated rows, null if can't estimate.
+     */
+    protected Long estimate(SQLBindings bindings, Connection connection, Configuration configuration, StatementControlListener listener) {
+        Savepoint savepoint = null;
+        try {
+            if (!connection.getAutoCommit()) {
+                savepoint = connection.setSavepoint();
+            }
+            Long estimate = this.readPlan(bindings, connection, configuration, listener);
+            if (null != savepoint) {
+                connection.releaseSavepoint(savepoint);
+            }
+            if (null == estimate) {
+                log.debug("no row estimate found in plan of query [{}].", bindings.getSQL());
+            }
+            return estimate;
+        } catch (SQLException | RuntimeException e) {
+            log.warn("can't read plan of query [{}].", bindings.getSQL(), e);
+            EstimatedCountStrategy.rollback(connection, savepoint);
+        }
+        return null;
+    }
+
+    private Long readPlan(SQLBindings bindings, Connection connection, Configuration configuration, StatementControlListener listener) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(explainPrefix + bindings.getSQL())) {
+            QueryDslUtils.setParameters(configuration, statement, bindings.getNullFriendlyBindings());
+            return listener.execute(statement, () -> {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Matcher matcher = rowsPattern.matcher(resultSet.getString(1));
+                        if (matcher.find()) {
+                            return Long.parseLong(matcher.group(1));
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    private static void rollback(Connection connection, Savepoint savepoint) {
+        if (null == savepoint) {
+            return;
+        }
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            log.warn("can't roll back to savepoint of plan query.", e);
+        }
+    }
+}
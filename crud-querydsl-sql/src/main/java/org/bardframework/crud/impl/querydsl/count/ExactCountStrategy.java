@@ -0,0 +1,18 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.bardframework.crud.impl.querydsl.listener.StatementControlListener;
+
+/**
+ * <code>select count(*)</code> of query, default strategy.
+ */
+public class ExactCountStrategy implements CountStrategy {
+
+    public static final ExactCountStrategy INSTANCE = new ExactCountStrategy();
+
+    @Override
+    public TotalCount count(SQLQuery<?> query, SQLQueryFactory queryFactory, StatementControlListener listener) {
+        return TotalCount.exact(query.fetchCount());
+    }
+}
@@ -0,0 +1,18 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.bardframework.crud.impl.querydsl.listener.StatementControlListener;
+
+/**
+ * no count query, for clients that don't display total.
+ */
+public class NoCountStrategy implements CountStrategy {
+
+    public static final NoCountStrategy INSTANCE = new NoCountStrategy();
+
+    @Override
+    public TotalCount count(SQLQuery<?> query, SQLQueryFactory queryFactory, StatementControlListener listener) {
+        return TotalCount.UNKNOWN;
+    }
+}
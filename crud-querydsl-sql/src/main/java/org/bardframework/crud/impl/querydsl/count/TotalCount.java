@@ -0,0 +1,20 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+/**
+ * total count of paged read.
+ *
+ * @param value count of records, or lower bound / estimate of it if not exact; negative if not calculated.
+ * @param exact true if value is exact count of records
+ */
+public record TotalCount(long value, boolean exact) {
+
+    public static final TotalCount UNKNOWN = new TotalCount(-1, false);
+
+    public static TotalCount exact(long value) {
+        return new TotalCount(value, true);
+    }
+
+    public static TotalCount approximate(long value) {
+        return new TotalCount(value, false);
+    }
+}
@@ -0,0 +1,40 @@
+package org.bardframework.crud.impl.querydsl.listener;
+
+import lombok.experimental.UtilityClass;
+import org.bardframework.commons.utils.AssertionUtils;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * per call query timeout, overrides timeout of repository for statements executed by given work on current thread, e.g.
+ * <code>QueryTimeout.with(Duration.ofSeconds(2), () -> super.get(criteria, pageable, user))</code>;
+ * parallel reads of repositories carry it to their executor, see {@link StatementControlListener#propagate(Supplier)}
+ */
+@UtilityClass
+public final class QueryTimeout {
+
+    private static final ThreadLocal<Duration> CURRENT = new ThreadLocal<>();
+
+    public static <T> T with(Duration timeout, Supplier<T> work) {
+        AssertionUtils.notNull(timeout, "timeout cannot be null.");
+        Duration previous = CURRENT.get();
+        CURRENT.set(timeout);
+        try {
+            return work.get();
+        } finally {
+            if (null == previous) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return timeout of current call, null if not set.
+     */
+    public static Duration current() {
+        return CURRENT.get();
+    }
+}
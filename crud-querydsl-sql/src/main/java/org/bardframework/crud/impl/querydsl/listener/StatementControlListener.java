@@ -0,0 +1,108 @@
+package org.bardframework.crud.impl.querydsl.listener;
+
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLListenerContext;
+import org.bardframework.crud.api.cancellation.CancellationScope;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * apply query timeout to statements before execution, and register them in {@link CancellationScope} of current thread while they run.
+ * timeout is {@link QueryTimeout#current()} if set, default timeout otherwise.
+ */
+public class StatementControlListener extends SQLBaseListener {
+
+    private static final String CANCELLABLE = StatementControlListener.class.getName() + ".cancellable";
+
+    private final Supplier<Duration> defaultTimeout;
+
+    /**
+     * @param defaultTimeout timeout of statements, supplier may return null for no timeout.
+     */
+    public StatementControlListener(Supplier<Duration> defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * bind timeout and cancellation scope of current thread to given work, for work that runs on another thread (e.g. task of an executor).
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        Duration timeout = QueryTimeout.current();
+        CancellationScope scope = CancellationScope.current();
+        return () -> {
+            Supplier<T> scoped = null == scope ? work : () -> scope.call(work);
+            return null == timeout ? scoped.get() : QueryTimeout.with(timeout, scoped);
+        };
+    }
+
+    @Override
+    public void preExecute(SQLListenerContext context) {
+        this.setTimeout(context.getPreparedStatements());
+        CancellationScope scope = CancellationScope.current();
+        if (null != scope) {
+            CancellationScope.Cancellable cancellable = () -> {
+                for (PreparedStatement statement : context.getPreparedStatements()) {
+                    statement.cancel();
+                }
+            };
+            context.setData(CANCELLABLE, cancellable);
+            scope.register(cancellable);
+        }
+    }
+
+    @Override
+    public void end(SQLListenerContext context) {
+        Object cancellable = context.getData(CANCELLABLE);
+        CancellationScope scope = CancellationScope.current();
+        if (cancellable instanceof CancellationScope.Cancellable && null != scope) {
+            scope.unregister((CancellationScope.Cancellable) cancellable);
+        }
+    }
+
+    /**
+     * execute a statement prepared outside of querydsl clauses (e.g. raw jdbc) under same timeout and cancellation as clauses.
+     */
+    public <T> T execute(PreparedStatement statement, StatementCall<T> call) throws SQLException {
+        this.setTimeout(List.of(statement));
+        CancellationScope scope = CancellationScope.current();
+        CancellationScope.Cancellable cancellable = statement::cancel;
+        if (null != scope) {
+            scope.register(cancellable);
+        }
+        try {
+            return call.execute();
+        } finally {
+            if (null != scope) {
+                scope.unregister(cancellable);
+            }
+        }
+    }
+
+    private void setTimeout(Collection<PreparedStatement> statements) {
+        Duration timeout = QueryTimeout.current();
+        if (null == timeout) {
+            timeout = defaultTimeout.get();
+        }
+        if (null == timeout || timeout.isZero() || timeout.isNegative()) {
+            return;
+        }
+        int seconds = (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.setQueryTimeout(seconds);
+            } catch (SQLException e) {
+                throw new IllegalStateException("can't set query timeout", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface StatementCall<T> {
+        T execute() throws SQLException;
+    }
+}
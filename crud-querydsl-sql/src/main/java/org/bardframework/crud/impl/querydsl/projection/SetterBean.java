@@ -0,0 +1,182 @@
+package org.bardframework.crud.impl.querydsl.projection;
+
+import com.querydsl.core.types.*;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * bean projection like {@link QBean}, but constructor and setters are bound once per bean class and property
+ * (through {@link LambdaMetafactory}, or plain method handles if lambda can't be generated), so populating rows needs no reflection.
+ * properties are populated using setter if exist, field otherwise; names are resolved same as {@link QBean}, path name or alias.
+ */
+public class SetterBean<T> extends FactoryExpressionBase<T> {
+
+    private static final ClassValue<Supplier<?>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            return SetterBean.createConstructor(type);
+        }
+    };
+    private static final ClassValue<Map<String, BiConsumer<Object, Object>>> SETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, BiConsumer<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final List<Expression<?>> args;
+    private final Supplier<T> constructor;
+    private final BiConsumer<Object, Object>[] setters;
+    private final boolean skipNulls;
+
+    public SetterBean(Class<? extends T> type, Expression<?>... args) {
+        this(type, false, args);
+    }
+
+    @SuppressWarnings("unchecked")
+    public SetterBean(Class<? extends T> type, boolean skipNulls, Expression<?>... args) {
+        super(type);
+        this.args = List.of(args);
+        this.skipNulls = skipNulls;
+        this.constructor = (Supplier<T>) CONSTRUCTORS.get(type);
+        this.setters = new BiConsumer[args.length];
+        Map<String, BiConsumer<Object, Object>> typeSetters = SETTERS.get(type);
+        for (int i = 0; i < args.length; i++) {
+            this.setters[i] = typeSetters.computeIfAbsent(SetterBean.getPropertyName(args[i]), property -> SetterBean.createSetter(type, property));
+        }
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public T newInstance(Object... values) {
+        T bean = constructor.get();
+        for (int i = 0; i < values.length; i++) {
+            if (null != values[i] || !skipNulls) {
+                setters[i].accept(bean, values[i]);
+            }
+        }
+        return bean;
+    }
+
+    public SetterBean<T> skipNulls() {
+        return new SetterBean<>(this.getType(), true, args.toArray(new Expression[0]));
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        return obj instanceof SetterBean<?> bean && this.getType().equals(bean.getType()) && args.equals(bean.args) && skipNulls == bean.skipNulls;
+    }
+
+    private static String getPropertyName(Expression<?> expression) {
+        if (expression instanceof Path<?> path) {
+            return path.getMetadata().getName();
+        }
+        if (expression instanceof Operation<?> operation && operation.getOperator() == Ops.ALIAS && operation.getArg(1) instanceof Path<?> alias) {
+            return alias.getMetadata().getName();
+        }
+        throw new IllegalArgumentException("unsupported expression [%s], use path or aliased expression.".formatted(expression));
+    }
+
+    private static Supplier<?> createConstructor(Class<?> type) {
+        MethodHandle handle;
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("no-args constructor of [%s] not accessible.".formatted(type), e);
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+            return (Supplier<?>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            return () -> {
+                try {
+                    return handle.invoke();
+                } catch (Throwable ex) {
+                    throw new IllegalStateException("can't instantiate " + type, ex);
+                }
+            };
+        }
+    }
+
+    private static BiConsumer<Object, Object> createSetter(Class<?> type, String property) {
+        MethodHandles.Lookup lookup;
+        MethodHandle handle;
+        Class<?> receiverType;
+        Class<?> valueType;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            Method setter = SetterBean.findSetter(type, property);
+            if (null != setter) {
+                handle = lookup.unreflect(setter);
+                receiverType = setter.getDeclaringClass();
+                valueType = setter.getParameterTypes()[0];
+            } else {
+                Field field = SetterBean.findField(type, property);
+                handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectSetter(field);
+                receiverType = field.getDeclaringClass();
+                valueType = field.getType();
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("property [%s] of [%s] is not writable.".formatted(property, type), e);
+        }
+        try {
+            Class<?> boxedType = MethodType.methodType(valueType).wrap().returnType();
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle, MethodType.methodType(void.class, receiverType, boxedType));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            /*
+                field setters and some class loader setups can't be spun as lambda, invoking method handle is still reflection-free.
+             */
+            return (bean, value) -> {
+                try {
+                    handle.invoke(bean, value);
+                } catch (Throwable ex) {
+                    throw new IllegalStateException("can't set property [%s] of [%s] to [%s]".formatted(property, type, value), ex);
+                }
+            };
+        }
+    }
+
+    private static Method findSetter(Class<?> type, String property) {
+        String name = "set" + StringUtils.capitalize(property);
+        return Arrays.stream(type.getMethods())
+                .filter(method -> method.getName().equals(name) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers()))
+                .findFirst().orElse(null);
+    }
+
+    private static Field findField(Class<?> type, String property) throws NoSuchFieldException {
+        for (Class<?> clazz = type; null != clazz; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.getName().equals(property) && !Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            }
+        }
+        throw new NoSuchFieldException(property);
+    }
+}
@@ -0,0 +1,194 @@
+package org.bardframework.crud.impl.querydsl.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bardframework.commons.utils.AssertionUtils;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * route connections of read only transactions (e.g. <code>@Transactional(readOnly = true)</code> repository methods) to replicas, others to primary.
+ * <ul>
+ *     <li>replica that fails to give a connection is skipped for <code>retryInterval</code>; if no replica is available primary is used.</li>
+ *     <li>after commit of a read-write transaction, reads of same user (given by <code>userKeySupplier</code>) go to primary for <code>readYourWritesWindow</code>.</li>
+ * </ul>
+ * read only flag of transaction is set after transaction manager takes its connection,
+ * so this data source must be wrapped in {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} before given to transaction manager and query factory.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final AtomicInteger counter = new AtomicInteger();
+    private final Map<Object, Long> lastWrites = new ConcurrentHashMap<>();
+    private Duration retryInterval = Duration.ofSeconds(30);
+    private Duration readYourWritesWindow = Duration.ZERO;
+    private Supplier<Object> userKeySupplier;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaSelection selection) {
+        AssertionUtils.notNull(primary, "primary data source cannot be null.");
+        AssertionUtils.notNull(replicas, "replica data sources cannot be null.");
+        AssertionUtils.notNull(selection, "replica selection cannot be null.");
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.selection = selection;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!this.isInReadYourWritesWindow()) {
+                Connection connection = this.getReplicaConnection(username, password);
+                if (null != connection) {
+                    return connection;
+                }
+            }
+        } else {
+            this.trackWrite();
+        }
+        return null == username ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    /**
+     * @return connection of an available replica, null if no replica is available.
+     */
+    protected Connection getReplicaConnection(String username, String password) {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        for (int index : this.getReplicaOrder()) {
+            Replica replica = replicas.get(index);
+            if (!replica.isAvailable(now)) {
+                continue;
+            }
+            try {
+                return replica.getConnection(username, password, ReplicaSelection.LEAST_LOADED == selection);
+            } catch (SQLException | RuntimeException e) {
+                log.warn("replica [{}] is not available, skipped for {}.", index, retryInterval, e);
+                replica.markDown(now + retryInterval.toNanos());
+            }
+        }
+        log.warn("no replica is available, read only connection taken from primary.");
+        return null;
+    }
+
+    private int[] getReplicaOrder() {
+        int size = replicas.size();
+        if (ReplicaSelection.LEAST_LOADED == selection) {
+            return IntStream.range(0, size).boxed().sorted(Comparator.comparingInt(index -> replicas.get(index).active.get())).mapToInt(Integer::intValue).toArray();
+        }
+        int start = Math.floorMod(counter.getAndIncrement(), size);
+        return IntStream.range(0, size).map(i -> (start + i) % size).toArray();
+    }
+
+    private boolean isInReadYourWritesWindow() {
+        if (readYourWritesWindow.isZero() || null == userKeySupplier) {
+            return false;
+        }
+        Object userKey = userKeySupplier.get();
+        if (null == userKey) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(userKey);
+        return null != lastWrite && System.nanoTime() - lastWrite < readYourWritesWindow.toNanos();
+    }
+
+    private void trackWrite() {
+        if (readYourWritesWindow.isZero() || null == userKeySupplier || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Object userKey = userKeySupplier.get();
+        if (null == userKey) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.nanoTime();
+                lastWrites.put(userKey, now);
+                if (lastWrites.size() > 1024) {
+                    lastWrites.values().removeIf(time -> now - time >= readYourWritesWindow.toNanos());
+                }
+            }
+        });
+    }
+
+    public void setRetryInterval(Duration retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * @param userKeySupplier key of current user, e.g. name of authenticated principal; null key means no tracking.
+     */
+    public void setReadYourWrites(Duration readYourWritesWindow, Supplier<Object> userKeySupplier) {
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.userKeySupplier = userKeySupplier;
+    }
+
+    private static class Replica {
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile long downUntil;
+        private volatile boolean down;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable(long now) {
+            return !down || now - downUntil >= 0;
+        }
+
+        private void markDown(long until) {
+            this.downUntil = until;
+            this.down = true;
+        }
+
+        private Connection getConnection(String username, String password, boolean track) throws SQLException {
+            Connection connection = null == username ? dataSource.getConnection() : dataSource.getConnection(username, password);
+            down = false;
+            if (!track) {
+                return connection;
+            }
+            active.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> {
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        active.decrementAndGet();
+                    }
+                    try {
+                        yield method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            });
+        }
+    }
+}
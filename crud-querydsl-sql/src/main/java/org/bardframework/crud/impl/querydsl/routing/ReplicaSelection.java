@@ -0,0 +1,12 @@
+package org.bardframework.crud.impl.querydsl.routing;
+
+/**
+ * how a replica is chosen for a read only transaction.
+ */
+public enum ReplicaSelection {
+    ROUND_ROBIN,
+    /**
+     * replica with least open connections taken through routing data source.
+     */
+    LEAST_LOADED
+}
@@ -0,0 +1,109 @@
+package org.bardframework.crud.impl.querydsl.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * encode and decode opaque keyset pagination cursors; a cursor is the url safe base64 form of the json array of sort key values of the last returned row.
+ * values are encoded losslessly, since a rounded value skips or repeats rows of next page:
+ * temporal values as ISO-8601 text with full precision (nanos of {@link Timestamp} included), decimals as {@link java.math.BigDecimal}.
+ */
+@UtilityClass
+public final class CursorUtils {
+
+    private final static ObjectMapper MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .addModule(CursorUtils.temporalModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .build();
+
+    public static String encode(List<?> values) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("can't encode cursor values " + values, e);
+        }
+    }
+
+    /**
+     * @param types type of each value in cursor, in order of sort keys
+     * @throws IllegalArgumentException if cursor is not valid or not match with given types
+     */
+    public static List<Object> decode(String cursor, List<Class<?>> types) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(Base64.getUrlDecoder().decode(cursor));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor [%s]".formatted(cursor), e);
+        }
+        if (null == node || !node.isArray() || node.size() != types.size()) {
+            throw new IllegalArgumentException("invalid cursor [%s], expect %d value(s)".formatted(cursor, types.size()));
+        }
+        List<Object> values = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            try {
+                values.add(MAPPER.treeToValue(node.get(i), types.get(i)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("invalid cursor [%s], can't convert value to [%s]".formatted(cursor, types.get(i)), e);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * jdbc temporal types as text; default serializers of jackson write them as epoch millis, which drops nanos of timestamps
+     * and shifts sql dates by time zone of jvm on decode. java.time types are written as ISO-8601 text by jsr310 module.
+     */
+    private static SimpleModule temporalModule() {
+        SimpleModule module = new SimpleModule("CursorTemporalModule");
+        CursorUtils.addTextType(module, Timestamp.class, timestamp -> timestamp.toInstant().toString(), text -> Timestamp.from(Instant.parse(text)));
+        CursorUtils.addTextType(module, java.sql.Date.class, java.sql.Date::toString, java.sql.Date::valueOf);
+        CursorUtils.addTextType(module, Time.class, time -> Instant.ofEpochMilli(time.getTime()).toString(), text -> new Time(Instant.parse(text).toEpochMilli()));
+        CursorUtils.addTextType(module, Date.class, date -> date.toInstant().toString(), text -> Date.from(Instant.parse(text)));
+        return module;
+    }
+
+    private static <T> void addTextType(SimpleModule module, Class<T> type, Function<T, String> format, Function<String, T> parse) {
+        module.addSerializer(type, new StdScalarSerializer<>(type) {
+            @Override
+            public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeString(format.apply(value));
+            }
+        });
+        module.addDeserializer(type, new StdScalarDeserializer<>(type) {
+            @Override
+            public T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                String text = parser.getValueAsString();
+                try {
+                    return parse.apply(text);
+                } catch (RuntimeException e) {
+                    throw context.weirdStringException(text, type, e.getMessage());
+                }
+            }
+        });
+    }
+}
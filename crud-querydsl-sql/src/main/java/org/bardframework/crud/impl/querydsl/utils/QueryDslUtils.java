@@ -3,19 +3,29 @@ package org.bardframework.crud.impl.querydsl.utils;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.types.Null;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.bardframework.crud.impl.querydsl.projection.SetterBean;
 import org.bardframework.form.model.filter.Filter;
 import org.bardframework.form.model.filter.NumberRangeFilter;
 import org.bardframework.form.model.filter.RangeFilter;
 import org.bardframework.form.model.filter.StringFilter;
 
 import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -30,15 +40,84 @@ public final class QueryDslUtils {
             The filter is empty;
             Filter on which no restrictions has been applied can be very dangerous in scenarios such as data deletion and cause unwanted deletion of data;
             Instead of using an empty filter (a filter that all its restrictions such as 'equals', 'notEquals', etc are empty), use the null criteria.""";
+    private final static int IN_VALUES_PADDING_STEP = 64;
 
     public static <T> Expression<T> bean(String alias, Class<T> type, Expression<?>... expressions) {
-        return ExpressionUtils.as(Projections.bean(type, expressions).skipNulls(), alias);
+        return ExpressionUtils.as(new SetterBean<>(type, true, expressions), alias);
     }
 
     public static <T> QBean<T> bean(Class<T> type, Expression<?>... expressions) {
         return Projections.bean(type, expressions);
     }
 
+    /**
+     * same as {@link #bean(Class, Expression[])}, without reflection on populating rows.
+     */
+    public static <T> SetterBean<T> setterBean(Class<T> type, Expression<?>... expressions) {
+        return new SetterBean<>(type, expressions);
+    }
+
+    /**
+     * pad values by repeating last value, so <code>in (...)</code> lists of close sizes share same sql text
+     * and stay in statement and plan caches; repeated values don't change the result. see {@link #getPaddedSize(int)}
+     * null values are removed, null never matches <code>in (...)</code> and makes <code>not in (...)</code> match no row; result may be empty.
+     */
+    public static <I> List<I> padInValues(Collection<I> values) {
+        List<I> padded = new ArrayList<>(QueryDslUtils.getPaddedSize(values.size()));
+        for (I value : values) {
+            if (null != value) {
+                padded.add(value);
+            }
+        }
+        if (padded.isEmpty()) {
+            return padded;
+        }
+        int paddedSize = QueryDslUtils.getPaddedSize(padded.size());
+        I last = padded.get(padded.size() - 1);
+        while (padded.size() < paddedSize) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    /**
+     * size of padded <code>in (...)</code> list: next power of two up to 64, next multiple of 64 for larger lists,
+     * so at most 63 values are added.
+     */
+    public static int getPaddedSize(int size) {
+        if (size <= 1) {
+            return size;
+        }
+        if (size <= IN_VALUES_PADDING_STEP) {
+            return Integer.bitCount(size) == 1 ? size : Integer.highestOneBit(size) << 1;
+        }
+        return (size + IN_VALUES_PADDING_STEP - 1) / IN_VALUES_PADDING_STEP * IN_VALUES_PADDING_STEP;
+    }
+
+    /**
+     * largest count of values that padded size of them is not more than given limit.
+     */
+    public static int getUnpaddedLimit(int limit) {
+        if (limit <= IN_VALUES_PADDING_STEP) {
+            return Math.max(1, Integer.highestOneBit(limit));
+        }
+        return limit / IN_VALUES_PADDING_STEP * IN_VALUES_PADDING_STEP;
+    }
+
+    /**
+     * bind parameters of {@link com.querydsl.sql.SQLBindings#getNullFriendlyBindings()} to given statement by types of configuration,
+     * for statements executed outside of querydsl clauses.
+     */
+    public static void setParameters(Configuration configuration, PreparedStatement statement, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i) instanceof Null) {
+                statement.setNull(i + 1, Types.NULL);
+            } else {
+                configuration.set(statement, null, i + 1, parameters.get(i));
+            }
+        }
+    }
+
     public static Predicate getPredicate(StringFilter filter, StringPath path) {
         if (null == filter) {
             return null;
@@ -101,10 +180,48 @@ public final class QueryDslUtils {
     }
 
     public static <I> Predicate getPredicate(Filter<I, ?> filter, SimpleExpression<I> path) {
-        return QueryDslUtils.getPredicate(filter, path::eq, path::ne, path::isNotNull, path::isNull);
+        Function<Collection<I>, Predicate> in = values -> {
+            List<I> padded = QueryDslUtils.padInValues(values);
+            return padded.isEmpty() ? Expressions.FALSE.isTrue() : path.in(padded);
+        };
+        Function<Collection<I>, Predicate> notIn = values -> {
+            List<I> padded = QueryDslUtils.padInValues(values);
+            return padded.isEmpty() ? null : path.notIn(padded);
+        };
+        return QueryDslUtils.getPredicate(filter, path::eq, path::ne, in, notIn, path::isNotNull, path::isNull);
     }
 
+    /**
+     * <code>in</code> and <code>notIn</code> are expanded to or-ed <code>equals</code> and and-ed <code>notEquals</code> predicates;
+     * values are padded same as {@link #padInValues(Collection)}, so expanded predicates of close sizes share same sql text too.
+     */
     public static <I> Predicate getPredicate(Filter<I, ?> filter, Function<I, Predicate> equals, Function<I, Predicate> notEquals, Supplier<Predicate> isNotNull, Supplier<Predicate> isNull) {
+        Function<Collection<I>, Predicate> in = values -> {
+            List<I> padded = QueryDslUtils.padInValues(values);
+            if (padded.isEmpty()) {
+                return Expressions.FALSE.isTrue();
+            }
+            BooleanBuilder inBuilder = new BooleanBuilder();
+            for (I value : padded) {
+                inBuilder.or(equals.apply(value));
+            }
+            return inBuilder;
+        };
+        Function<Collection<I>, Predicate> notIn = values -> {
+            List<I> padded = QueryDslUtils.padInValues(values);
+            if (padded.isEmpty()) {
+                return null;
+            }
+            BooleanBuilder notInBuilder = new BooleanBuilder();
+            for (I value : padded) {
+                notInBuilder.and(notEquals.apply(value));
+            }
+            return notInBuilder;
+        };
+        return QueryDslUtils.getPredicate(filter, equals, notEquals, in, notIn, isNotNull, isNull);
+    }
+
+    public static <I> Predicate getPredicate(Filter<I, ?> filter, Function<I, Predicate> equals, Function<I, Predicate> notEquals, Function<Collection<I>, Predicate> in, Function<Collection<I>, Predicate> notIn, Supplier<Predicate> isNotNull, Supplier<Predicate> isNull) {
         if (null == filter) {
             return null;
         }
@@ -120,18 +237,10 @@ public final class QueryDslUtils {
             builder.and(notEquals.apply(filter.getNotEquals()));
         }
         if (CollectionUtils.isNotEmpty(filter.getIn())) {
-            BooleanBuilder inBuilder = new BooleanBuilder();
-            for (I id : filter.getIn()) {
-                inBuilder.or(equals.apply(id));
-            }
-            builder.and(inBuilder);
+            builder.and(in.apply(filter.getIn()));
         }
         if (CollectionUtils.isNotEmpty(filter.getNotIn())) {
-            BooleanBuilder notInBuilder = new BooleanBuilder();
-            for (I id : filter.getNotIn()) {
-                notInBuilder.and(notEquals.apply(id));
-            }
-            builder.and(notInBuilder);
+            builder.and(notIn.apply(filter.getNotIn()));
         }
         if (filter.getSpecified() != null) {
             if (filter.getSpecified()) {
@@ -0,0 +1,78 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+import org.bardframework.crud.api.base.BaseCriteria;
+import org.bardframework.crud.api.base.BaseModel;
+import org.bardframework.crud.api.base.BaseRepositoryTest;
+import org.bardframework.crud.api.base.RepositoryDataProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * tests of querydsl repositories, in addition to {@link BaseRepositoryTest}
+ */
+public interface BaseRepositoryQdslSqlTest<M extends BaseModel<I>, C extends BaseCriteria<I>, R extends BaseRepositoryQdslSqlAbstract<M, C, I, U>, P extends RepositoryDataProvider<M, C, R, I, U>, I, U> extends BaseRepositoryTest<M, C, R, P, I, U> {
+
+    /*----------------------- Chunked Write ---------------------*/
+
+    @Test
+    default void testSaveAllChunks() {
+        this.assumeChunkTransaction();
+        U user = this.getDataProvider().getUser();
+        int chunkSize = this.getRepository().getWriteChunkSize();
+        List<M> models = this.getDataProvider().getUnsavedModels(chunkSize * 2L + 1, user);
+        List<ChunkProgress> progress = new ArrayList<>();
+        long savedCount = this.getRepository().saveAll(models, progress::add, user);
+        assertThat(savedCount).isEqualTo(models.size());
+        assertThat(progress).extracting(ChunkProgress::chunk).containsExactly(1, 2, 3);
+        assertThat(progress).extracting(ChunkProgress::size).containsExactly(chunkSize, chunkSize, 1);
+        assertThat(progress).extracting(ChunkProgress::written).containsExactly((long) chunkSize, chunkSize * 2L, (long) models.size());
+        assertThat(this.getRepository().get(models.stream().map(M::getId).toList(), user)).hasSize(models.size());
+    }
+
+    @Test
+    default void testSaveAllExactChunk() {
+        this.assumeChunkTransaction();
+        U user = this.getDataProvider().getUser();
+        int chunkSize = this.getRepository().getWriteChunkSize();
+        List<M> models = this.getDataProvider().getUnsavedModels(chunkSize, user);
+        List<ChunkProgress> progress = new ArrayList<>();
+        long savedCount = this.getRepository().saveAll(models, progress::add, user);
+        assertThat(savedCount).isEqualTo(chunkSize);
+        assertThat(progress).hasSize(1).first().isEqualTo(new ChunkProgress(1, chunkSize, chunkSize));
+    }
+
+    @Test
+    default void testSaveAllEmpty() {
+        this.assumeChunkTransaction();
+        U user = this.getDataProvider().getUser();
+        List<ChunkProgress> progress = new ArrayList<>();
+        assertThat(this.getRepository().saveAll(List.of(), progress::add, user)).isZero();
+        assertThat(progress).isEmpty();
+    }
+
+    @Test
+    default void testUpdateAllChunks() {
+        this.assumeChunkTransaction();
+        U user = this.getDataProvider().getUser();
+        int chunkSize = this.getRepository().getWriteChunkSize();
+        List<M> models = this.getRepository().save(this.getDataProvider().getUnsavedModels(chunkSize + 1L, user), user);
+        List<ChunkProgress> progress = new ArrayList<>();
+        long updatedCount = this.getRepository().updateAll(models, progress::add, user);
+        assertThat(updatedCount).isEqualTo(models.size());
+        assertThat(progress).extracting(ChunkProgress::size).containsExactly(chunkSize, 1);
+        assertThat(progress.get(progress.size() - 1).written()).isEqualTo(models.size());
+    }
+
+    /**
+     * chunks are written in chunk transactions of repository or in transaction of test.
+     */
+    private void assumeChunkTransaction() {
+        assumeTrue(null != this.getRepository().getWriteChunkTransactionOperations() || TransactionSynchronizationManager.isActualTransactionActive(), "chunks need a transaction");
+    }
+}
@@ -0,0 +1,71 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+import org.bardframework.crud.exception.InvalidFieldException;
+import org.bardframework.crud.impl.querydsl.sample.Sample;
+import org.bardframework.crud.impl.querydsl.sample.SampleCriteria;
+import org.bardframework.crud.impl.querydsl.sample.SampleDatabase;
+import org.bardframework.crud.impl.querydsl.sample.SampleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class FieldsProjectionTest {
+
+    private static final String USER = "user";
+
+    private SampleDatabase database;
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new SampleDatabase();
+        repository = database.createRepository();
+        repository.save(new Sample("a", 1, new Timestamp(0)), USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testImmutableFieldList() {
+        List<Sample> models = repository.getList(new SampleCriteria(), null, List.of("name", "id"), USER);
+        assertThat(models).hasSize(1);
+        assertThat(models.get(0).getName()).isEqualTo("a");
+        assertThat(models.get(0).getId()).isNotNull();
+        assertThat(models.get(0).getScore()).isNull();
+    }
+
+    @Test
+    void testNullField() {
+        assertThatExceptionOfType(InvalidFieldException.class).isThrownBy(() -> repository.getList(new SampleCriteria(), null, Arrays.asList("name", null), USER));
+    }
+
+    @Test
+    void testInvalidField() {
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(InvalidFieldException.class).isThrownBy(() -> repository.getList(new SampleCriteria(), null, List.of("unknown"), USER));
+        }
+    }
+
+    /**
+     * many distinct field lists evict least recently used projections, a used one keeps working.
+     */
+    @Test
+    void testEviction() {
+        List<String> columns = List.of("id", "name", "score", "created");
+        for (int i = 0; i < 1000; i++) {
+            List<String> fields = List.of(columns.get(i % columns.size()), "unknown" + i);
+            assertThatExceptionOfType(InvalidFieldException.class).isThrownBy(() -> repository.getList(new SampleCriteria(), null, fields, USER));
+            assertThat(repository.getList(new SampleCriteria(), null, List.of("name"), USER)).extracting(Sample::getName).containsExactly("a");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+import org.bardframework.crud.api.cache.IdentityMap;
+import org.bardframework.crud.impl.querydsl.sample.Sample;
+import org.bardframework.crud.impl.querydsl.sample.SampleDatabase;
+import org.bardframework.crud.impl.querydsl.sample.SampleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityMapServiceTest {
+
+    private static final String USER = "user";
+
+    private SampleDatabase database;
+    private SampleService service;
+    private TransactionTemplate transaction;
+    private TransactionTemplate newTransaction;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        database = new SampleDatabase();
+        service = new SampleService(database.createRepository());
+        service.setIdentityMapEnabled(true);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(database.getDataSource());
+        transaction = new TransactionTemplate(transactionManager);
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        id = service.save(new Sample("sample", 1, new Timestamp(System.currentTimeMillis())), USER).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testSameInstanceInTransaction() {
+        transaction.executeWithoutResult(status -> assertThat(service.get(id, USER)).isNotNull().isSameAs(service.get(id, USER)));
+        assertThat(IdentityMap.getIfBound(service)).isNull();
+    }
+
+    @Test
+    void testNewInstancePerTransaction() {
+        Sample first = transaction.execute(status -> service.get(id, USER));
+        Sample second = transaction.execute(status -> service.get(id, USER));
+        assertThat(first).isNotNull().isNotSameAs(second);
+    }
+
+    @Test
+    void testNewInstanceOutOfTransaction() {
+        assertThat(service.get(id, USER)).isNotNull().isNotSameAs(service.get(id, USER));
+    }
+
+    @Test
+    void testDisabled() {
+        service.setIdentityMapEnabled(false);
+        transaction.executeWithoutResult(status -> assertThat(service.get(id, USER)).isNotNull().isNotSameAs(service.get(id, USER)));
+    }
+
+    @Test
+    void testRequiresNewIsolated() {
+        transaction.executeWithoutResult(status -> {
+            Sample outer = service.get(id, USER);
+            Object outerMap = IdentityMap.getIfBound(service);
+            newTransaction.executeWithoutResult(innerStatus -> {
+                assertThat(IdentityMap.getIfBound(service)).isNull();
+                Sample inner = service.get(id, USER);
+                assertThat(inner).isNotNull().isNotSameAs(outer).isSameAs(service.get(id, USER));
+                assertThat(IdentityMap.getIfBound(service)).isNotNull().isNotSameAs(outerMap);
+            });
+            assertThat(IdentityMap.getIfBound(service)).isSameAs(outerMap);
+            assertThat(service.get(id, USER)).isSameAs(outer);
+        });
+    }
+
+    @Test
+    void testUpdateEvicts() {
+        transaction.executeWithoutResult(status -> {
+            Sample model = service.get(id, USER);
+            service.update(id, new Sample("updated", 2, model.getCreated()), USER);
+            assertThat(service.get(id, USER)).isNotSameAs(model).extracting(Sample::getName).isEqualTo("updated");
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+import org.bardframework.crud.impl.querydsl.sample.Sample;
+import org.bardframework.crud.impl.querydsl.sample.SampleDatabase;
+import org.bardframework.crud.impl.querydsl.sample.SampleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * rows of one save set different columns; sample repository sets score only if it is not null.
+ */
+class InsertModeTest {
+
+    private static final String USER = "user";
+
+    private SampleDatabase database;
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new SampleDatabase();
+        database.getJdbcTemplate().execute("ALTER TABLE sample ALTER COLUMN score SET DEFAULT -1");
+        repository = database.createRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(InsertMode.class)
+    void testHeterogeneousRows(InsertMode insertMode) {
+        repository.setInsertMode(insertMode);
+        Timestamp created = new Timestamp(System.currentTimeMillis());
+        List<Sample> models = repository.save(List.of(
+                new Sample("a", 1, created),
+                new Sample("b", null, created),
+                new Sample("c", 3, created),
+                new Sample("d", null, created),
+                new Sample("e", 5, created)
+        ), USER);
+        assertThat(models).extracting(Sample::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Map<Long, String> names = models.stream().collect(Collectors.toMap(Sample::getId, Sample::getName));
+        List<Sample> saved = repository.get(models.stream().map(Sample::getId).toList(), USER);
+        assertThat(saved).hasSize(5).allSatisfy(sample -> assertThat(sample.getName()).isEqualTo(names.get(sample.getId())));
+        assertThat(saved.stream().collect(Collectors.toMap(Sample::getName, Sample::getScore)))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("a", 1, "b", -1, "c", 3, "d", -1, "e", 5));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InsertMode.class)
+    void testHomogeneousRows(InsertMode insertMode) {
+        repository.setInsertMode(insertMode);
+        Timestamp created = new Timestamp(System.currentTimeMillis());
+        List<Sample> models = repository.save(List.of(new Sample("a", 1, created), new Sample("b", 2, created)), USER);
+        assertThat(models).extracting(Sample::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(repository.get(models.stream().map(Sample::getId).toList(), USER)).extracting(Sample::getName).containsExactlyInAnyOrder("a", "b");
+    }
+}
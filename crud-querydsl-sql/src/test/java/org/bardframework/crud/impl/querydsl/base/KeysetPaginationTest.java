@@ -0,0 +1,118 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+import org.bardframework.crud.api.base.PagedData;
+import org.bardframework.crud.impl.querydsl.sample.Sample;
+import org.bardframework.crud.impl.querydsl.sample.SampleCriteria;
+import org.bardframework.crud.impl.querydsl.sample.SampleDatabase;
+import org.bardframework.crud.impl.querydsl.sample.SampleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * keyset pagination over ties, nullable keys and timestamps differing only in nanos; all pages joined must be the full ordered table.
+ */
+class KeysetPaginationTest {
+
+    private static final String USER = "user";
+
+    private SampleDatabase database;
+    private SampleRepository repository;
+    private List<Sample> models;
+
+    @BeforeEach
+    void setUp() {
+        database = new SampleDatabase();
+        repository = database.createRepository();
+        models = repository.save(List.of(
+                new Sample("a", 1, timestamp(1)),
+                new Sample("b", 1, timestamp(1)),
+                new Sample("c", 1, timestamp(2)),
+                new Sample("d", null, timestamp(1)),
+                new Sample("e", 2, timestamp(0)),
+                new Sample("f", null, timestamp(0)),
+                new Sample("g", 2, timestamp(3)),
+                new Sample("h", 1, timestamp(1)),
+                new Sample("i", null, timestamp(1)),
+                new Sample("j", 3, timestamp(0))
+        ), USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testAscendingWithTiesAndNulls() {
+        Comparator<Sample> order = Comparator.comparing(Sample::getScore, Comparator.nullsLast(Comparator.<Integer>naturalOrder()))
+                .thenComparing(Sample::getCreated)
+                .thenComparing(Sample::getId);
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            assertThat(this.readAll(Sort.by("score", "created"), pageSize)).as("page size %d", pageSize).containsExactlyElementsOf(this.expected(order));
+        }
+    }
+
+    @Test
+    void testMixedDirectionsWithNulls() {
+        Comparator<Sample> order = Comparator.comparing(Sample::getScore, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+                .thenComparing(Sample::getCreated)
+                .thenComparing(Sample::getId);
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            assertThat(this.readAll(Sort.by(Sort.Order.desc("score"), Sort.Order.asc("created")), pageSize)).as("page size %d", pageSize).containsExactlyElementsOf(this.expected(order));
+        }
+    }
+
+    /**
+     * not nullable keys of same direction are compared as row value; cursor must keep nanos of timestamp.
+     */
+    @Test
+    void testTimestampKeyKeepsNanos() {
+        Comparator<Sample> order = Comparator.comparing(Sample::getCreated).thenComparing(Sample::getId).reversed();
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            assertThat(this.readAll(Sort.by(Sort.Order.desc("created")), pageSize)).as("page size %d", pageSize).containsExactlyElementsOf(this.expected(order));
+        }
+    }
+
+    @Test
+    void testTotalCountedOnFirstPageOnly() {
+        PagedData<Sample> first = repository.get(new SampleCriteria(), PageRequest.of(1, 4, Sort.by("name")), null, USER);
+        assertThat(first.getTotal()).isEqualTo(models.size());
+        assertThat(first.isTotalExact()).isTrue();
+        assertThat(first.getData()).extracting(Sample::getName).containsExactly("a", "b", "c", "d");
+        PagedData<Sample> second = repository.get(new SampleCriteria(), PageRequest.of(1, 4, Sort.by("name")), first.getNext(), USER);
+        assertThat(second.isTotalExact()).isFalse();
+        assertThat(second.getData()).extracting(Sample::getName).containsExactly("e", "f", "g", "h");
+    }
+
+    private List<Long> readAll(Sort sort, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            PagedData<Sample> page = repository.get(new SampleCriteria(), PageRequest.of(1, pageSize, sort), after, USER);
+            page.getData().forEach(model -> ids.add(model.getId()));
+            assertThat(ids.size()).as("rows read by cursor").isLessThanOrEqualTo(models.size());
+            after = page.getNext();
+        } while (null != after);
+        return ids;
+    }
+
+    private List<Long> expected(Comparator<Sample> order) {
+        return models.stream().sorted(order).map(Sample::getId).toList();
+    }
+
+    private static Timestamp timestamp(int nanos) {
+        Timestamp timestamp = Timestamp.valueOf("2024-01-01 10:00:00");
+        timestamp.setNanos(nanos);
+        return timestamp;
+    }
+}
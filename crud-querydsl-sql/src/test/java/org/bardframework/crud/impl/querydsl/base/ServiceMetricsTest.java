@@ -0,0 +1,83 @@
+package org.bardframework.crud.impl.querydsl.base;
+
+import org.bardframework.crud.api.metrics.OperationMetrics;
+import org.bardframework.crud.impl.querydsl.sample.Sample;
+import org.bardframework.crud.impl.querydsl.sample.SampleDatabase;
+import org.bardframework.crud.impl.querydsl.sample.SampleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceMetricsTest {
+
+    private static final String USER = "user";
+
+    private final List<String> recorded = new ArrayList<>();
+    private SampleDatabase database;
+    private SampleService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new SampleDatabase();
+        service = new SampleService(database.createRepository());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testNoopByDefault() {
+        assertThat(service.getMetrics()).isSameAs(OperationMetrics.NOOP);
+        service.setMetrics(null);
+        assertThat(service.getMetrics()).isSameAs(OperationMetrics.NOOP);
+    }
+
+    @Test
+    void testInjectedMetrics() {
+        service.setMetrics(new OperationMetrics() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public void record(String entity, String operation, String shape, long durationNanos, long rows, Throwable error) {
+                recorded.add(entity + ":" + operation + ":" + rows);
+            }
+        });
+        Long id = service.save(new Sample("sample", 1, new Timestamp(System.currentTimeMillis())), USER).getId();
+        service.get(id, USER);
+        service.get(service.getEmptyCriteria(), PageRequest.of(1, 10), USER);
+        assertThat(recorded).contains("Sample:get:1")
+                .anyMatch(operation -> operation.startsWith("Sample:save:"))
+                .anyMatch(operation -> operation.startsWith("Sample:page:"));
+    }
+
+    @Test
+    void testMetricsPerService() {
+        SampleService other = new SampleService(database.createRepository());
+        other.setMetrics(new OperationMetrics() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public void record(String entity, String operation, String shape, long durationNanos, long rows, Throwable error) {
+                recorded.add(operation);
+            }
+        });
+        service.get(service.getEmptyCriteria(), PageRequest.of(1, 10), USER);
+        assertThat(recorded).isEmpty();
+        assertThat(service.getMetrics()).isSameAs(OperationMetrics.NOOP);
+    }
+}
@@ -0,0 +1,136 @@
+package org.bardframework.crud.impl.querydsl.count;
+
+import org.bardframework.crud.api.base.PagedData;
+import org.bardframework.crud.impl.querydsl.sample.Sample;
+import org.bardframework.crud.impl.querydsl.sample.SampleCriteria;
+import org.bardframework.crud.impl.querydsl.sample.SampleDatabase;
+import org.bardframework.crud.impl.querydsl.sample.SampleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * total and exactness of paged reads of each count strategy, against h2.
+ */
+class CountStrategyTest {
+
+    private static final String USER = "user";
+    private static final int ROWS = 10;
+    /**
+     * h2 reports rows scanned by query, not a planner estimate; enough to read a row count from plan.
+     */
+    private static final Pattern H2_ROWS_PATTERN = Pattern.compile("scanCount: (\\d+)");
+
+    private SampleDatabase database;
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new SampleDatabase();
+        repository = database.createRepository();
+        repository.save(IntStream.range(0, ROWS).mapToObj(i -> new Sample(i % 2 == 0 ? "even" : "odd", i, new Timestamp(i))).toList(), USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testExact() {
+        PagedData<Sample> page = this.getPage(new SampleCriteria());
+        assertThat(page.getTotal()).isEqualTo(ROWS);
+        assertThat(page.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void testNoCount() {
+        repository.setCountStrategy(NoCountStrategy.INSTANCE);
+        PagedData<Sample> page = this.getPage(new SampleCriteria());
+        assertThat(page.getData()).hasSize(3);
+        assertThat(page.getTotal()).isNegative();
+        assertThat(page.isTotalExact()).isFalse();
+    }
+
+    @Test
+    void testCappedAboveCap() {
+        repository.setCountStrategy(new CappedCountStrategy(4));
+        PagedData<Sample> page = this.getPage(new SampleCriteria());
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.isTotalExact()).isFalse();
+    }
+
+    @Test
+    void testCappedBelowCap() {
+        repository.setCountStrategy(new CappedCountStrategy(ROWS));
+        PagedData<Sample> page = this.getPage(this.criteria("odd"));
+        assertThat(page.getTotal()).isEqualTo(ROWS / 2);
+        assertThat(page.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void testCached() {
+        repository.setCountStrategy(new CachedCountStrategy(Duration.ofMinutes(1), 16));
+        PagedData<Sample> first = this.getPage(new SampleCriteria());
+        assertThat(first.getTotal()).isEqualTo(ROWS);
+        assertThat(first.isTotalExact()).isTrue();
+        repository.save(new Sample("even", ROWS, new Timestamp(ROWS)), USER);
+        PagedData<Sample> cached = this.getPage(new SampleCriteria());
+        assertThat(cached.getTotal()).isEqualTo(ROWS);
+        assertThat(cached.isTotalExact()).isFalse();
+        PagedData<Sample> otherQuery = this.getPage(this.criteria("even"));
+        assertThat(otherQuery.getTotal()).isEqualTo(ROWS / 2 + 1);
+        assertThat(otherQuery.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void testEstimated() {
+        repository.setCountStrategy(new EstimatedCountStrategy("EXPLAIN ANALYZE ", H2_ROWS_PATTERN, 1));
+        PagedData<Sample> page = this.getPage(this.criteria("odd"));
+        assertThat(page.getData()).extracting(Sample::getName).containsOnly("odd");
+        assertThat(page.getTotal()).isPositive();
+        assertThat(page.isTotalExact()).isFalse();
+    }
+
+    @Test
+    void testEstimatedBelowThreshold() {
+        repository.setCountStrategy(new EstimatedCountStrategy("EXPLAIN ANALYZE ", H2_ROWS_PATTERN, 1000));
+        PagedData<Sample> page = this.getPage(this.criteria("odd"));
+        assertThat(page.getTotal()).isEqualTo(ROWS / 2);
+        assertThat(page.isTotalExact()).isTrue();
+    }
+
+    /**
+     * failed plan query is rolled back to its savepoint, exact count runs in same transaction.
+     */
+    @Test
+    void testEstimatedFallbackInTransaction() {
+        repository.setCountStrategy(new EstimatedCountStrategy("NOT A PLAN ", H2_ROWS_PATTERN, 1));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database.getDataSource()));
+        PagedData<Sample> page = transactionTemplate.execute(status -> this.getPage(this.criteria("odd")));
+        assertThat(page.getTotal()).isEqualTo(ROWS / 2);
+        assertThat(page.isTotalExact()).isTrue();
+        assertThat(page.getData()).hasSize(3);
+    }
+
+    private PagedData<Sample> getPage(SampleCriteria criteria) {
+        return repository.get(criteria, PageRequest.of(1, 3), USER);
+    }
+
+    private SampleCriteria criteria(String name) {
+        SampleCriteria criteria = new SampleCriteria();
+        criteria.setName(name);
+        return criteria;
+    }
+}
@@ -0,0 +1,124 @@
+package org.bardframework.crud.impl.querydsl.listener;
+
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.SQLQuery;
+import org.bardframework.crud.api.cancellation.CancellationScope;
+import org.bardframework.crud.impl.querydsl.sample.SampleDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.bardframework.crud.impl.querydsl.sample.QSample.sample;
+
+/**
+ * statements of h2 that run for minutes are cancelled from another thread through their scope.
+ */
+@Timeout(30)
+class StatementControlListenerTest {
+
+    private static final String SLOW_SUM = "SELECT SUM(a.X * b.X) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b";
+
+    private SampleDatabase database;
+    private StatementControlListener listener;
+
+    @BeforeEach
+    void setUp() {
+        database = new SampleDatabase();
+        database.getJdbcTemplate().update("INSERT INTO sample (name, created) VALUES ('sample', CURRENT_TIMESTAMP)");
+        listener = new StatementControlListener(() -> null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void testCancelQuery() {
+        CancellationScope scope = CancellationScope.open();
+        try {
+            SQLQuery<BigDecimal> query = database.getQueryFactory().select(Expressions.numberTemplate(BigDecimal.class, "(" + SLOW_SUM + ")")).from(sample);
+            query.addListener(listener);
+            this.cancelLater(scope);
+            assertThatThrownBy(query::fetchOne).isInstanceOf(RuntimeException.class);
+            assertThat(scope.isCancelled()).isTrue();
+        } finally {
+            scope.close();
+        }
+        assertThat(database.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM sample", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testCancelStatementInOtherThread() throws Exception {
+        CancellationScope scope = CancellationScope.open();
+        try {
+            CompletableFuture<Object> work = CompletableFuture.supplyAsync(StatementControlListener.propagate(() -> {
+                try {
+                    return this.executeSlowSum();
+                } catch (SQLException e) {
+                    return e;
+                }
+            }));
+            this.cancelLater(scope);
+            assertThat(work.get(20, TimeUnit.SECONDS)).isInstanceOf(SQLException.class);
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Test
+    void testRegisteredAfterCancelIsCancelled() {
+        CancellationScope scope = CancellationScope.open();
+        try {
+            scope.cancel();
+            CompletableFuture<Boolean> cancelled = new CompletableFuture<>();
+            scope.register(() -> cancelled.complete(true));
+            assertThat(cancelled).isCompletedWithValue(true);
+        } finally {
+            scope.close();
+        }
+        assertThat(CancellationScope.current()).isNull();
+    }
+
+    @Test
+    void testExecuteWithoutScope() throws SQLException {
+        assertThat(CancellationScope.current()).isNull();
+        try (Connection connection = database.getDataSource().getConnection(); PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM sample")) {
+            assertThat(listener.execute(statement, () -> {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getInt(1);
+                }
+            })).isEqualTo(1);
+        }
+    }
+
+    private Object executeSlowSum() throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); PreparedStatement statement = connection.prepareStatement(SLOW_SUM)) {
+            return listener.execute(statement, () -> {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getBigDecimal(1);
+                }
+            });
+        }
+    }
+
+    /**
+     * cancel scope after statement has started; h2 ignores cancel of a statement which is not running yet.
+     */
+    private void cancelLater(CancellationScope scope) {
+        CompletableFuture.runAsync(scope::cancel, CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,105 @@
+package org.bardframework.crud.impl.querydsl.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * routing between two h2 databases; each database has a row naming itself.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private SingleConnectionDataSource primary;
+    private SingleConnectionDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.destroy();
+        replica.destroy();
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        DataSource dataSource = this.route(new ReadReplicaRoutingDataSource(primary, List.of(replica), ReplicaSelection.ROUND_ROBIN));
+        assertThat(this.transaction(dataSource, true).execute(status -> this.getNode(dataSource))).isEqualTo("replica");
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplicaLeastLoaded() {
+        DataSource dataSource = this.route(new ReadReplicaRoutingDataSource(primary, List.of(replica), ReplicaSelection.LEAST_LOADED));
+        assertThat(this.transaction(dataSource, true).execute(status -> this.getNode(dataSource))).isEqualTo("replica");
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() {
+        DataSource dataSource = this.route(new ReadReplicaRoutingDataSource(primary, List.of(replica), ReplicaSelection.ROUND_ROBIN));
+        assertThat(this.transaction(dataSource, false).execute(status -> this.getNode(dataSource))).isEqualTo("primary");
+        this.transaction(dataSource, false).executeWithoutResult(status -> new JdbcTemplate(dataSource).update("INSERT INTO node (name) VALUES ('written')"));
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM node", Integer.class)).isEqualTo(2);
+        assertThat(new JdbcTemplate(replica).queryForObject("SELECT COUNT(*) FROM node", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testNonTransactionalUsesPrimary() {
+        DataSource dataSource = this.route(new ReadReplicaRoutingDataSource(primary, List.of(replica), ReplicaSelection.ROUND_ROBIN));
+        assertThat(this.getNode(dataSource)).isEqualTo("primary");
+    }
+
+    @Test
+    void testUnavailableReplicaFallsBackToPrimary() {
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        DataSource dataSource = this.route(new ReadReplicaRoutingDataSource(primary, List.of(missing), ReplicaSelection.ROUND_ROBIN));
+        assertThat(this.transaction(dataSource, true).execute(status -> this.getNode(dataSource))).isEqualTo("primary");
+    }
+
+    @Test
+    void testReadYourWrites() {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, List.of(replica), ReplicaSelection.ROUND_ROBIN);
+        routing.setReadYourWrites(Duration.ofMinutes(1), () -> "user");
+        DataSource dataSource = this.route(routing);
+        assertThat(this.transaction(dataSource, true).execute(status -> this.getNode(dataSource))).isEqualTo("replica");
+        this.transaction(dataSource, false).executeWithoutResult(status -> new JdbcTemplate(dataSource).update("INSERT INTO node (name) VALUES ('written')"));
+        assertThat(this.transaction(dataSource, true).execute(status -> this.getNode(dataSource))).isEqualTo("primary");
+    }
+
+    private DataSource route(ReadReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private TransactionTemplate transaction(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate;
+    }
+
+    private String getNode(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node ORDER BY id LIMIT 1", String.class);
+    }
+
+    private static SingleConnectionDataSource database(String name) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID(), true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(16) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
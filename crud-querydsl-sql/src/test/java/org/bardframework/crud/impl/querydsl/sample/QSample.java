@@ -0,0 +1,33 @@
+package org.bardframework.crud.impl.querydsl.sample;
+
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * path of sample table, as generated by querydsl codegen.
+ */
+public class QSample extends RelationalPathBase<QSample> {
+
+    public static final QSample sample = new QSample("sample");
+
+    public final NumberPath<Long> id = createNumber("id", Long.class);
+    public final StringPath name = createString("name");
+    public final NumberPath<Integer> score = createNumber("score", Integer.class);
+    public final DateTimePath<Timestamp> created = createDateTime("created", Timestamp.class);
+
+    public QSample(String variable) {
+        super(QSample.class, forVariable(variable), "PUBLIC", "SAMPLE");
+        addMetadata(id, ColumnMetadata.named("ID").withIndex(1).ofType(Types.BIGINT).withSize(64).notNull());
+        addMetadata(name, ColumnMetadata.named("NAME").withIndex(2).ofType(Types.VARCHAR).withSize(64).notNull());
+        addMetadata(score, ColumnMetadata.named("SCORE").withIndex(3).ofType(Types.INTEGER).withSize(32));
+        addMetadata(created, ColumnMetadata.named("CREATED").withIndex(4).ofType(Types.TIMESTAMP).withSize(26).withDigits(9).notNull());
+    }
+}
@@ -0,0 +1,24 @@
+package org.bardframework.crud.impl.querydsl.sample;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.bardframework.crud.api.base.BaseModelAbstract;
+
+import java.sql.Timestamp;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class Sample extends BaseModelAbstract<Long> {
+
+    private String name;
+    private Integer score;
+    private Timestamp created;
+
+    public Sample(String name, Integer score, Timestamp created) {
+        this.name = name;
+        this.score = score;
+        this.created = created;
+    }
+}
@@ -0,0 +1,12 @@
+package org.bardframework.crud.impl.querydsl.sample;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bardframework.crud.api.base.BaseCriteriaAbstract;
+
+@Getter
+@Setter
+public class SampleCriteria extends BaseCriteriaAbstract<Long> {
+
+    private String name;
+}
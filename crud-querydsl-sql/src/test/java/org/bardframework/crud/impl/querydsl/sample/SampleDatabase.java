@@ -0,0 +1,47 @@
+package org.bardframework.crud.impl.querydsl.sample;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+/**
+ * private in memory h2 database with sample table, dropped on close.
+ */
+public class SampleDatabase implements AutoCloseable {
+
+    private final SingleConnectionDataSource dataSource;
+    private final SQLQueryFactory queryFactory;
+
+    public SampleDatabase() {
+        this.dataSource = new SingleConnectionDataSource("jdbc:h2:mem:" + UUID.randomUUID(), true);
+        this.queryFactory = new SQLQueryFactory(new Configuration(new H2Templates()), () -> DataSourceUtils.getConnection(dataSource));
+        this.getJdbcTemplate().execute("CREATE TABLE sample (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(64) NOT NULL, score INT, created TIMESTAMP(9) NOT NULL)");
+    }
+
+    public SampleRepository createRepository() {
+        return new SampleRepository(queryFactory);
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public SQLQueryFactory getQueryFactory() {
+        return queryFactory;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void close() {
+        dataSource.destroy();
+    }
+}
@@ -0,0 +1,88 @@
+package org.bardframework.crud.impl.querydsl.sample;
+
+import com.querydsl.core.dml.StoreClause;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.Setter;
+import org.bardframework.crud.impl.querydsl.base.BaseRepositoryQdslSqlAbstract;
+import org.bardframework.crud.impl.querydsl.base.InsertMode;
+import org.bardframework.crud.impl.querydsl.count.CountStrategy;
+import org.bardframework.crud.impl.querydsl.count.ExactCountStrategy;
+import org.bardframework.crud.impl.querydsl.utils.QueryDslUtils;
+
+import java.time.Duration;
+
+import static org.bardframework.crud.impl.querydsl.sample.QSample.sample;
+
+/**
+ * repository of sample table; optional columns are written only if set, as repositories relying on column defaults do.
+ */
+@Setter
+public class SampleRepository extends BaseRepositoryQdslSqlAbstract<Sample, SampleCriteria, Long, String> {
+
+    private CountStrategy countStrategy = ExactCountStrategy.INSTANCE;
+    private InsertMode insertMode = InsertMode.BATCH;
+    private Duration queryTimeout;
+
+    public SampleRepository(SQLQueryFactory queryFactory) {
+        super(queryFactory);
+    }
+
+    @Override
+    protected Predicate getPredicate(SampleCriteria criteria, String user) {
+        return null == criteria.getName() ? null : sample.name.eq(criteria.getName());
+    }
+
+    @Override
+    protected RelationalPathBase<?> getEntity() {
+        return sample;
+    }
+
+    @Override
+    protected Expression<Sample> getSelectExpression() {
+        return QueryDslUtils.setterBean(Sample.class, sample.id, sample.name, sample.score, sample.created);
+    }
+
+    @Override
+    protected Expression<Long> getIdSelectExpression() {
+        return sample.id;
+    }
+
+    @Override
+    protected <T extends StoreClause<T>> void onSave(T clause, Sample model, String user) {
+        clause.set(sample.name, model.getName());
+        clause.set(sample.created, model.getCreated());
+        if (null != model.getScore()) {
+            clause.set(sample.score, model.getScore());
+        }
+    }
+
+    @Override
+    protected <T extends StoreClause<T>> void onUpdate(T clause, Sample model, String user) {
+        clause.set(sample.name, model.getName());
+        clause.set(sample.score, model.getScore());
+        clause.set(sample.created, model.getCreated());
+    }
+
+    @Override
+    protected Long generateId(Sample entity, String user) {
+        return null;
+    }
+
+    @Override
+    protected CountStrategy getCountStrategy(SampleCriteria criteria, String user) {
+        return countStrategy;
+    }
+
+    @Override
+    protected InsertMode getInsertMode() {
+        return insertMode;
+    }
+
+    @Override
+    protected Duration getQueryTimeout() {
+        return queryTimeout;
+    }
+}
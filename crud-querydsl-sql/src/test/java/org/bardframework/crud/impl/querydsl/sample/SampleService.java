@@ -0,0 +1,34 @@
+package org.bardframework.crud.impl.querydsl.sample;
+
+import lombok.Setter;
+import org.bardframework.crud.api.base.BaseService;
+
+/**
+ * service of sample table, dto of it is the model itself.
+ */
+@Setter
+public class SampleService extends BaseService<Sample, SampleCriteria, Sample, SampleRepository, Long, String> {
+
+    private boolean identityMapEnabled;
+
+    public SampleService(SampleRepository repository) {
+        super(repository);
+    }
+
+    @Override
+    protected Sample onSave(Sample dto, String user) {
+        return new Sample(dto.getName(), dto.getScore(), dto.getCreated());
+    }
+
+    @Override
+    protected void onUpdate(Sample dto, Sample entity, String user) {
+        entity.setName(dto.getName());
+        entity.setScore(dto.getScore());
+        entity.setCreated(dto.getCreated());
+    }
+
+    @Override
+    protected boolean isIdentityMapEnabled() {
+        return identityMapEnabled;
+    }
+}
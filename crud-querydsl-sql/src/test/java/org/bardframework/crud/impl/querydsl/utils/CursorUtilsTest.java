@@ -0,0 +1,48 @@
+package org.bardframework.crud.impl.querydsl.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CursorUtilsTest {
+
+    @Test
+    void testTimestampKeepsNanos() {
+        Timestamp timestamp = Timestamp.valueOf("2024-01-01 10:00:00.123456789");
+        List<Object> values = CursorUtils.decode(CursorUtils.encode(List.of(timestamp)), List.of(Timestamp.class));
+        assertThat(values).containsExactly(timestamp);
+        assertThat(((Timestamp) values.get(0)).getNanos()).isEqualTo(123456789);
+    }
+
+    @Test
+    void testSqlDateNotShifted() {
+        Date date = Date.valueOf("2024-03-31");
+        assertThat(CursorUtils.decode(CursorUtils.encode(List.of(date)), List.of(Date.class))).containsExactly(date);
+    }
+
+    @Test
+    void testDecimalNotRounded() {
+        BigDecimal decimal = new BigDecimal("12345678901234567890.123456789");
+        assertThat(CursorUtils.decode(CursorUtils.encode(List.of(decimal)), List.of(BigDecimal.class))).containsExactly(decimal);
+    }
+
+    @Test
+    void testMixedValues() {
+        List<Object> values = Arrays.asList("name", 42L, null);
+        assertThat(CursorUtils.decode(CursorUtils.encode(values), List.of(String.class, Long.class, Integer.class))).containsExactly("name", 42L, null);
+    }
+
+    @Test
+    void testInvalidCursor() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CursorUtils.decode("not a cursor", List.of(Long.class)));
+        assertThatIllegalArgumentException().isThrownBy(() -> CursorUtils.decode(CursorUtils.encode(List.of(1L, 2L)), List.of(Long.class)));
+        assertThatIllegalArgumentException().isThrownBy(() -> CursorUtils.decode(CursorUtils.encode(List.of("not a time")), List.of(Timestamp.class)));
+    }
+}
@@ -0,0 +1,100 @@
+package org.bardframework.crud.impl.querydsl.utils;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLSerializer;
+import org.bardframework.form.model.filter.IdFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryDslUtilsTest {
+
+    private static final NumberPath<Long> ID = Expressions.numberPath(Long.class, "id");
+
+    @Test
+    void testPaddedSize() {
+        assertThat(QueryDslUtils.getPaddedSize(0)).isZero();
+        assertThat(QueryDslUtils.getPaddedSize(1)).isEqualTo(1);
+        assertThat(QueryDslUtils.getPaddedSize(2)).isEqualTo(2);
+        assertThat(QueryDslUtils.getPaddedSize(3)).isEqualTo(4);
+        assertThat(QueryDslUtils.getPaddedSize(5)).isEqualTo(8);
+        assertThat(QueryDslUtils.getPaddedSize(63)).isEqualTo(64);
+        assertThat(QueryDslUtils.getPaddedSize(64)).isEqualTo(64);
+        assertThat(QueryDslUtils.getPaddedSize(65)).isEqualTo(128);
+        assertThat(QueryDslUtils.getPaddedSize(128)).isEqualTo(128);
+        assertThat(QueryDslUtils.getPaddedSize(129)).isEqualTo(192);
+    }
+
+    @Test
+    void testUnpaddedLimit() {
+        assertThat(QueryDslUtils.getUnpaddedLimit(1)).isEqualTo(1);
+        assertThat(QueryDslUtils.getUnpaddedLimit(63)).isEqualTo(32);
+        assertThat(QueryDslUtils.getUnpaddedLimit(64)).isEqualTo(64);
+        assertThat(QueryDslUtils.getUnpaddedLimit(1000)).isEqualTo(960);
+        assertThat(QueryDslUtils.getUnpaddedLimit(1024)).isEqualTo(1024);
+        for (int limit = 1; limit <= 2048; limit++) {
+            int unpadded = QueryDslUtils.getUnpaddedLimit(limit);
+            assertThat(QueryDslUtils.getPaddedSize(unpadded)).as("limit %d", limit).isLessThanOrEqualTo(limit);
+            assertThat(QueryDslUtils.getPaddedSize(unpadded + 1)).as("limit %d", limit).isGreaterThan(limit);
+        }
+    }
+
+    @Test
+    void testPadInValues() {
+        assertThat(QueryDslUtils.padInValues(List.of())).isEmpty();
+        assertThat(QueryDslUtils.padInValues(List.of(1L))).containsExactly(1L);
+        assertThat(QueryDslUtils.padInValues(List.of(1L, 2L, 3L))).containsExactly(1L, 2L, 3L, 3L);
+        List<Long> values = LongStream.rangeClosed(1, 65).boxed().toList();
+        List<Long> padded = QueryDslUtils.padInValues(values);
+        assertThat(padded).hasSize(128).startsWith(values.toArray(Long[]::new));
+        assertThat(padded.subList(65, 128)).containsOnly(65L);
+        assertThat(QueryDslUtils.padInValues(LongStream.rangeClosed(1, 64).boxed().toList())).hasSize(64);
+    }
+
+    /**
+     * null is removed before padding, otherwise it could be repeated and <code>not in (..., null)</code> matches nothing.
+     */
+    @Test
+    void testPadInValuesRemovesNull() {
+        assertThat(QueryDslUtils.padInValues(Arrays.asList(1L, 2L, null))).containsExactly(1L, 2L);
+        assertThat(QueryDslUtils.padInValues(Arrays.asList(null, 1L, 2L, 3L))).containsExactly(1L, 2L, 3L, 3L);
+        assertThat(QueryDslUtils.padInValues(Arrays.asList((Long) null))).isEmpty();
+    }
+
+    @Test
+    void testInPredicateOfCloseSizesSharesSql() {
+        assertThat(this.toSql(QueryDslUtils.getPredicate(new IdFilter<Long>().setIn(List.of(1L, 2L, 3L)), ID)))
+                .isEqualTo(this.toSql(QueryDslUtils.getPredicate(new IdFilter<Long>().setIn(List.of(5L, 6L, 7L, 8L)), ID)));
+        assertThat(this.toSql(this.getExpandedPredicate(new IdFilter<Long>().setIn(List.of(1L, 2L, 3L)))))
+                .isEqualTo(this.toSql(this.getExpandedPredicate(new IdFilter<Long>().setIn(List.of(5L, 6L, 7L, 8L)))));
+        assertThat(this.toSql(this.getExpandedPredicate(new IdFilter<Long>().setNotIn(List.of(1L, 2L, 3L)))))
+                .isEqualTo(this.toSql(this.getExpandedPredicate(new IdFilter<Long>().setNotIn(List.of(5L, 6L, 7L, 8L)))));
+    }
+
+    @Test
+    void testInPredicateOfNullOnly() {
+        IdFilter<Long> in = new IdFilter<Long>().setIn(Arrays.asList((Long) null));
+        assertThat(this.toSql(QueryDslUtils.getPredicate(in, ID))).isEqualTo(this.toSql(Expressions.FALSE.isTrue()));
+        assertThat(this.toSql(this.getExpandedPredicate(in))).isEqualTo(this.toSql(Expressions.FALSE.isTrue()));
+        IdFilter<Long> notIn = new IdFilter<Long>().setNotIn(Arrays.asList(null, 1L));
+        assertThat(this.toSql(QueryDslUtils.getPredicate(notIn, ID))).isEqualTo(this.toSql(ID.notIn(List.of(1L))));
+    }
+
+    private Predicate getExpandedPredicate(IdFilter<Long> filter) {
+        return QueryDslUtils.getPredicate(filter, ID::eq, ID::ne, ID::isNotNull, ID::isNull);
+    }
+
+    private String toSql(Predicate predicate) {
+        SQLSerializer serializer = new SQLSerializer(new Configuration(new H2Templates()));
+        serializer.handle(predicate);
+        return serializer.toString();
+    }
+}